@@ -2,7 +2,9 @@ package ru.practicum.main;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = {"ru.practicum.statisticclient", "ru.practicum.main"})
 public class MainApplication {
     public static void main(String[] args) {
@@ -13,6 +13,10 @@ public final class CategoryMapper {
         return new CategoryDto(category.getId(), category.getName());
     }
 
+    public static Category categoryFromDto(CategoryDto categoryDto) {
+        return new Category(categoryDto.getId(), categoryDto.getName());
+    }
+
     public static Category categoryFromSaveDto(NewCategoryDto newCategoryDto) {
         return new Category(null, newCategoryDto.getName());
     }
@@ -0,0 +1,100 @@
+package ru.practicum.main.category.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.category.dto.CategoryDto;
+import ru.practicum.main.category.mapper.CategoryMapper;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.enumeration.EntityType;
+import ru.practicum.main.util.CacheFlushEvent;
+import ru.practicum.main.util.EntityChangedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private volatile Snapshot snapshot = new Snapshot(new TreeMap<>());
+
+    @PostConstruct
+    public synchronized void load() {
+        TreeMap<Long, CategoryDto> categories = categoryRepository.findAll()
+                .stream()
+                .map(CategoryMapper::categoryToDto)
+                .collect(Collectors.toMap(CategoryDto::getId, category -> category, (a, b) -> b, TreeMap::new));
+        snapshot = new Snapshot(categories);
+        log.info("Загружено категорий в кэш: {}", categories.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.isRemote() && event.getType() == EntityType.CATEGORY) {
+            load();
+        }
+    }
+
+    @EventListener
+    public void onCacheFlush(CacheFlushEvent event) {
+        load();
+    }
+
+    public Optional<CategoryDto> find(Long catId) {
+        return Optional.ofNullable(snapshot.byId.get(catId));
+    }
+
+    public List<CategoryDto> findAll() {
+        return snapshot.ordered;
+    }
+
+    public void put(CategoryDto category) {
+        afterCommit(categories -> categories.put(category.getId(), category));
+    }
+
+    public void remove(Long catId) {
+        afterCommit(categories -> categories.remove(catId));
+    }
+
+    private void afterCommit(Consumer<TreeMap<Long, CategoryDto>> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<TreeMap<Long, CategoryDto>> change) {
+        TreeMap<Long, CategoryDto> categories = new TreeMap<>(snapshot.byId);
+        change.accept(categories);
+        snapshot = new Snapshot(categories);
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, CategoryDto> byId;
+        private final List<CategoryDto> ordered;
+
+        private Snapshot(TreeMap<Long, CategoryDto> categories) {
+            this.byId = Collections.unmodifiableMap(categories);
+            this.ordered = List.copyOf(categories.values());
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package ru.practicum.main.category.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.category.dto.NewCategoryDto;
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.enumeration.EntityType;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ObjectConflictException;
 import ru.practicum.main.exception.ObjectNotExistException;
+import ru.practicum.main.util.EntityChangedEvent;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,11 +26,16 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CategoryDto createCategory(NewCategoryDto newCategoryDto) {
-        return CategoryMapper.categoryToDto(
+        CategoryDto categoryDto = CategoryMapper.categoryToDto(
                 categoryRepository.save(CategoryMapper.categoryFromSaveDto(newCategoryDto)));
+        categoryCache.put(categoryDto);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.CATEGORY, categoryDto.getId()));
+        return categoryDto;
     }
 
     @Override
@@ -35,29 +43,36 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = getCategory(catId);
         checkEvent(catId);
         categoryRepository.delete(category);
+        categoryCache.remove(catId);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.CATEGORY, catId));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CategoryDto> getCategories(Integer from, Integer size) {
-        return categoryRepository.findAll(PageRequest.of(from, size))
-                .getContent()
-                .stream()
-                .map(CategoryMapper::categoryToDto)
-                .collect(Collectors.toList());
+        List<CategoryDto> categories = categoryCache.findAll();
+        long offset = PageRequest.of(from, size).getOffset();
+        if (offset >= categories.size()) {
+            return List.of();
+        }
+        return categories.subList((int) offset, (int) Math.min(offset + size, categories.size()));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CategoryDto getCategoryById(Long catId) {
-        return CategoryMapper.categoryToDto(getCategory(catId));
+        return categoryCache.find(catId).orElseThrow(
+                () -> new ObjectNotExistException(String.format("Категория с id = %d, не найдена", catId)));
     }
 
     @Override
     public CategoryDto updateCategory(NewCategoryDto newCategoryDto, Long catId) {
         Category category = getCategory(catId);
         category.setName(newCategoryDto.getName());
-        return CategoryMapper.categoryToDto(categoryRepository.save(category));
+        CategoryDto categoryDto = CategoryMapper.categoryToDto(categoryRepository.save(category));
+        categoryCache.put(categoryDto);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.CATEGORY, catId));
+        return categoryDto;
     }
 
     private void checkEvent(Long catId) {
@@ -1,14 +1,29 @@
 package ru.practicum.main.comment.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
     Comment findByIdAndCommentatorId(Long commentId, Long userId);
 
-    List<Comment> findAllByEventId(Long eventId);
+    @Query("SELECT new ru.practicum.main.comment.dto.CommentDto(c.id, c.commentator.id, c.event.id, c.text, " +
+            "c.created, c.lastUpdate) " +
+            "FROM Comment c " +
+            "WHERE c.event.id = :eventId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findLatestByEventId(Long eventId, Pageable pageable);
 
-    List<Comment> findAllByEventIdIn(List<Long> eventIds);
-}
\ No newline at end of file
+    @Query("SELECT new ru.practicum.main.comment.dto.CommentDto(c.id, c.commentator.id, c.event.id, c.text, " +
+            "c.created, c.lastUpdate) " +
+            "FROM Comment c " +
+            "WHERE c.event.id = :eventId " +
+            "AND (c.created < :created OR (c.created = :created AND c.id < :commentId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findLatestByEventIdBefore(Long eventId, LocalDateTime created, Long commentId, Pageable pageable);
+}
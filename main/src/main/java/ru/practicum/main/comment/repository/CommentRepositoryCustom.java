@@ -0,0 +1,12 @@
+package ru.practicum.main.comment.repository;
+
+import ru.practicum.main.comment.dto.CommentDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CommentRepositoryCustom {
+
+    Map<Long, List<CommentDto>> findLatestByEventIds(Collection<Long> eventIds, int limit);
+}
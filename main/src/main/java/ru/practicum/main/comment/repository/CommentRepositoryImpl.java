@@ -0,0 +1,48 @@
+package ru.practicum.main.comment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.main.comment.dto.CommentDto;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Long, List<CommentDto>> findLatestByEventIds(Collection<Long> eventIds, int limit) {
+        Map<Long, List<CommentDto>> comments = new HashMap<>();
+        if (eventIds.isEmpty() || limit <= 0) {
+            return comments;
+        }
+        jdbcTemplate.query("SELECT c.comment_id, c.commentator_id, c.event_id, c.text, c.created_on, c.last_update " +
+                        "FROM (SELECT DISTINCT event_id FROM comments WHERE event_id IN (:eventIds)) e " +
+                        "CROSS JOIN LATERAL (SELECT * FROM comments WHERE event_id = e.event_id " +
+                        "ORDER BY created_on DESC, comment_id DESC LIMIT :limit) c " +
+                        "ORDER BY c.event_id, c.created_on DESC, c.comment_id DESC",
+                new MapSqlParameterSource()
+                        .addValue("eventIds", eventIds)
+                        .addValue("limit", limit),
+                (RowCallbackHandler) rs -> {
+                    Timestamp lastUpdate = rs.getTimestamp("last_update");
+                    CommentDto comment = new CommentDto(
+                            rs.getLong("comment_id"),
+                            rs.getLong("commentator_id"),
+                            rs.getLong("event_id"),
+                            rs.getString("text"),
+                            rs.getTimestamp("created_on").toLocalDateTime(),
+                            lastUpdate == null ? null : lastUpdate.toLocalDateTime());
+                    comments.computeIfAbsent(comment.getEventId(), k -> new ArrayList<>()).add(comment);
+                });
+        return comments;
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.main.comment.service;
 
 import ru.practicum.main.comment.dto.CommentInputDto;
 import ru.practicum.main.comment.dto.CommentDto;
+import ru.practicum.main.util.CursorSlice;
+import ru.practicum.main.util.PageCursor;
 
 public interface CommentService {
 
@@ -12,4 +14,6 @@ public interface CommentService {
     void deleteCommentByUser(Long commentId, Long userId);
 
     void deleteCommentByAdmin(Long commentId);
+
+    CursorSlice<CommentDto> getComments(Long eventId, PageCursor cursor, Integer size);
 }
\ No newline at end of file
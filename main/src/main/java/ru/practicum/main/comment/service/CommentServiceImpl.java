@@ -1,6 +1,8 @@
 package ru.practicum.main.comment.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.comment.mapper.CommentMapper;
@@ -8,6 +10,7 @@ import ru.practicum.main.comment.dto.CommentInputDto;
 import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.model.Comment;
 import ru.practicum.main.comment.repository.CommentRepository;
+import ru.practicum.main.enumeration.EntityType;
 import ru.practicum.main.enumeration.EventStatus;
 import ru.practicum.main.enumeration.RequestStatus;
 import ru.practicum.main.event.model.Event;
@@ -18,9 +21,13 @@ import ru.practicum.main.exception.ObjectValidationException;
 import ru.practicum.main.request.repository.RequestRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorSlice;
+import ru.practicum.main.util.EntityChangedEvent;
+import ru.practicum.main.util.PageCursor;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -32,6 +39,7 @@ public class CommentServiceImpl implements CommentService {
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final RequestRepository requestRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CommentDto createComment(Long eventId, Long userId, CommentInputDto commentInputDto) {
@@ -41,8 +49,10 @@ public class CommentServiceImpl implements CommentService {
                 .orElseThrow(() -> new ObjectConflictException("Событие не существует или оно ещё неопубликованно!"));
         Optional.ofNullable(requestRepository.findByRequesterAndEventAndStatus(userId, eventId, RequestStatus.CONFIRMED))
                 .orElseThrow(() -> new ObjectConflictException("Вы не были участником события и не можете оставить комментарий!"));
-        return CommentMapper.commentToDto(
-                commentRepository.save(CommentMapper.commentFromCreateDto(commentInputDto, commentator, event)));
+        Comment comment = commentRepository.save(CommentMapper.commentFromCreateDto(commentInputDto, commentator, event));
+        eventRepository.incrementCommentCount(eventId);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, eventId));
+        return CommentMapper.commentToDto(comment);
     }
 
     @Override
@@ -54,6 +64,7 @@ public class CommentServiceImpl implements CommentService {
         }
         comment.setText(commentInputDto.getText());
         comment.setLastUpdate(LocalDateTime.now());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, comment.getEvent().getId()));
         return CommentMapper.commentToDto(commentRepository.save(comment));
     }
 
@@ -63,11 +74,33 @@ public class CommentServiceImpl implements CommentService {
                 .orElseThrow(() -> new ObjectConflictException(String.format(
                         "Комментарий с id = %d не существует или вы пытаетесь удалить чужой комментарий", commentId)));
         commentRepository.delete(comment);
+        eventRepository.decrementCommentCount(comment.getEvent().getId());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, comment.getEvent().getId()));
     }
 
     @Override
     public void deleteCommentByAdmin(Long commentId) {
-        commentRepository.delete(commentRepository.findById(commentId)
-                .orElseThrow(() -> new ObjectNotExistException(String.format("Комментарий с id = %d не найден.", commentId))));
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ObjectNotExistException(String.format("Комментарий с id = %d не найден.", commentId)));
+        commentRepository.delete(comment);
+        eventRepository.decrementCommentCount(comment.getEvent().getId());
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, comment.getEvent().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<CommentDto> getComments(Long eventId, PageCursor cursor, Integer size) {
+        if (eventRepository.findByIdAndState(eventId, EventStatus.PUBLISHED) == null) {
+            throw new ObjectNotExistException(String.format("Эвент с id = %d не был найден", eventId));
+        }
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<CommentDto> comments = cursor == null
+                ? commentRepository.findLatestByEventId(eventId, pageRequest)
+                : commentRepository.findLatestByEventIdBefore(eventId, cursor.getDateKey(), cursor.getId(), pageRequest);
+        if (comments.size() <= size) {
+            return new CursorSlice<>(comments, size, null);
+        }
+        CommentDto last = comments.get(size - 1);
+        return new CursorSlice<>(comments.subList(0, size), size, PageCursor.of(last.getCreated(), last.getId()));
     }
 }
\ No newline at end of file
@@ -2,9 +2,17 @@ package ru.practicum.main.compilation.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main.compilation.model.Compilation;
 
+import java.util.List;
+
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     Page<Compilation> findAllByPinned(Boolean pinned, PageRequest of);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"events", "events.category", "events.initiator"})
+    @Query("SELECT DISTINCT c FROM Compilation c ORDER BY c.id")
+    List<Compilation> findAllWithEvents();
+}
@@ -0,0 +1,118 @@
+package ru.practicum.main.compilation.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.compilation.mapper.CompilationMapper;
+import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.enumeration.EntityType;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.util.CacheFlushEvent;
+import ru.practicum.main.util.EntityChangedEvent;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompilationCache {
+
+    private final CompilationRepository compilationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public Optional<CompilationDto> find(Long compId) {
+        return Optional.ofNullable(getSnapshot().byId.get(compId));
+    }
+
+    public List<CompilationDto> findAll(Boolean pinned) {
+        Snapshot current = getSnapshot();
+        if (pinned == null) {
+            return current.all;
+        }
+        return pinned ? current.pinned : current.unpinned;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        boolean affected = event.getType() == EntityType.COMPILATION
+                || event.getType() == EntityType.CATEGORY
+                || current.eventIds.contains(event.getId());
+        if (affected) {
+            invalidate();
+        }
+    }
+
+    @EventListener
+    public void onCacheFlush(CacheFlushEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null && current.generation == generation.get() ? current : load();
+    }
+
+    private synchronized Snapshot load() {
+        long loadedGeneration = generation.get();
+        Snapshot current = snapshot;
+        if (current != null && current.generation == loadedGeneration) {
+            return current;
+        }
+        List<Compilation> compilations = transactionTemplate.execute(status -> compilationRepository.findAllWithEvents());
+        Snapshot loaded = new Snapshot(loadedGeneration, compilations);
+        snapshot = loaded;
+        log.debug("Кэш подборок перестроен, подборок: {}", loaded.all.size());
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final Map<Long, CompilationDto> byId;
+        private final List<CompilationDto> all;
+        private final List<CompilationDto> pinned;
+        private final List<CompilationDto> unpinned;
+        private final Set<Long> eventIds;
+
+        private Snapshot(long generation, List<Compilation> compilations) {
+            this.generation = generation;
+            Map<Long, CompilationDto> dtos = new LinkedHashMap<>();
+            Set<Long> events = new HashSet<>();
+            for (Compilation compilation : compilations) {
+                CompilationDto dto = CompilationMapper.compilationToDto(compilation);
+                dto.setEvents(List.copyOf(dto.getEvents()));
+                dtos.put(dto.getId(), dto);
+                for (Event event : compilation.getEvents()) {
+                    events.add(event.getId());
+                }
+            }
+            this.byId = Collections.unmodifiableMap(dtos);
+            this.all = List.copyOf(dtos.values());
+            this.pinned = all.stream().filter(dto -> Boolean.TRUE.equals(dto.getPinned())).collect(Collectors.toUnmodifiableList());
+            this.unpinned = all.stream().filter(dto -> !Boolean.TRUE.equals(dto.getPinned())).collect(Collectors.toUnmodifiableList());
+            this.eventIds = Set.copyOf(events);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package ru.practicum.main.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.CompilationDto;
@@ -11,12 +12,13 @@ import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.main.compilation.mapper.CompilationMapper;
 import ru.practicum.main.compilation.model.Compilation;
 import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.enumeration.EntityType;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ObjectValidationException;
+import ru.practicum.main.util.EntityChangedEvent;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +27,8 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CompilationCache compilationCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CompilationDto createCompilation(NewCompilationDto newCompilationDto) {
@@ -32,6 +36,7 @@ public class CompilationServiceImpl implements CompilationService {
                 newCompilationDto.getEvents() == null ? Collections.emptySet() : newCompilationDto.getEvents());
         Compilation compilation = compilationRepository.save(
                 CompilationMapper.compilationFromCreateDto(newCompilationDto, eventList));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.COMPILATION, compilation.getId()));
         return CompilationMapper.compilationToDto(compilation);
     }
 
@@ -48,31 +53,32 @@ public class CompilationServiceImpl implements CompilationService {
         if (updateCompilationRequest.getPinned() != null) {
             compilation.setPinned(updateCompilationRequest.getPinned());
         }
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.COMPILATION, compId));
         return CompilationMapper.compilationToDto(compilationRepository.save(compilation));
     }
 
     @Override
     public void deleteCompilation(Long compId) {
         compilationRepository.delete(getCompilation(compId));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.COMPILATION, compId));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompilationDto getCompilationById(Long compId) {
-        return CompilationMapper.compilationToDto(getCompilation(compId));
+        return compilationCache.find(compId)
+                .orElseThrow(() -> new ObjectValidationException(String.format("Подборка с id = %d не найдена", compId)));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<CompilationDto> getAllCompilations(Boolean pinned, Integer from, Integer size) {
-        PageRequest pageRequest = PageRequest.of(from, size);
-        Page<Compilation> compilationPage;
-        compilationPage = (pinned == null) ?
-                compilationRepository.findAll(pageRequest) : compilationRepository.findAllByPinned(pinned, pageRequest);
-        return compilationPage.getContent()
-                .stream()
-                .map(CompilationMapper::compilationToDto)
-                .collect(Collectors.toList());
+        List<CompilationDto> compilations = compilationCache.findAll(pinned);
+        long offset = PageRequest.of(from, size).getOffset();
+        if (offset >= compilations.size()) {
+            return List.of();
+        }
+        return compilations.subList((int) offset, (int) Math.min(offset + size, compilations.size()));
     }
 
     private Compilation getCompilation(Long compId) {
@@ -0,0 +1,7 @@
+package ru.practicum.main.enumeration;
+
+public enum EntityType {
+    EVENT,
+    CATEGORY,
+    COMPILATION
+}
@@ -5,7 +5,10 @@ import org.springframework.data.domain.Sort;
 public enum EventSort {
 
     VIEWS("views"),
-    EVENT_DATE("eventDate");
+    EVENT_DATE("eventDate"),
+    COMMENTS("commentCount"),
+    RELEVANCE("relevance"),
+    DISTANCE("distance");
 
     private final String sort;
 
@@ -14,7 +17,7 @@ public enum EventSort {
     }
 
     public Sort toSort(Sort.Direction direction) {
-        return Sort.by(direction, this.sort);
+        return Sort.by(direction, this.sort, "id");
     }
 
     public Sort ascending() {
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main.comment.dto.CommentInputDto;
@@ -12,12 +13,16 @@ import ru.practicum.main.comment.service.CommentService;
 import ru.practicum.main.enumeration.EventSort;
 import ru.practicum.main.event.dto.EventFullDtoWithViews;
 import ru.practicum.main.event.dto.EventShortWithViews;
+import ru.practicum.main.event.dto.GeoFilter;
 import ru.practicum.main.event.service.EventService;
+import ru.practicum.main.util.PageCursor;
 import ru.practicum.statisticclient.StatisticClient;
 import ru.practicum.statisticdto.HitDto;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
@@ -37,7 +42,7 @@ public class EventController {
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @GetMapping
-    public List<EventShortWithViews> getEvents(@RequestParam(required = false) String text,
+    public ResponseEntity<List<EventShortWithViews>> getEvents(@RequestParam(required = false) String text,
                                                @RequestParam(required = false) List<Long> categories,
                                                @RequestParam(required = false) Boolean paid,
                                                @RequestParam(required = false)
@@ -45,20 +50,36 @@ public class EventController {
                                                @RequestParam(required = false)
                                                @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                                @RequestParam(required = false) Boolean onlyAvailable,
+                                               @RequestParam(required = false) @DecimalMin("-90") @DecimalMax("90") Double lat,
+                                               @RequestParam(required = false) @DecimalMin("-180") @DecimalMax("180") Double lon,
+                                               @RequestParam(required = false) @Positive Double radius,
+                                               @RequestParam(required = false) @DecimalMin("-90") @DecimalMax("90") Double minLat,
+                                               @RequestParam(required = false) @DecimalMin("-180") @DecimalMax("180") Double minLon,
+                                               @RequestParam(required = false) @DecimalMin("-90") @DecimalMax("90") Double maxLat,
+                                               @RequestParam(required = false) @DecimalMin("-180") @DecimalMax("180") Double maxLon,
                                                @RequestParam(defaultValue = "EVENT_DATE") EventSort sort,
                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
                                                @RequestParam(defaultValue = "10") @Positive Integer size,
+                                               @RequestParam(required = false) String cursor,
                                                HttpServletRequest request) {
         log.info("Получен запрос /events getEvents c text = {}, categories = {}, paid = {}, rangeStart = {}," +
-                        "rangeEnd = {}, onlyAvailable = {}, sort = {}, from = {}, size = {}, request = {}", text, categories, paid,
-                rangeStart, rangeEnd, onlyAvailable, sort, from, size, request);
+                        "rangeEnd = {}, onlyAvailable = {}, lat = {}, lon = {}, radius = {}, minLat = {}, minLon = {}, " +
+                        "maxLat = {}, maxLon = {}, sort = {}, from = {}, size = {}, cursor = {}, request = {}",
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, lat, lon, radius, minLat, minLon,
+                maxLat, maxLon, sort, from, size, cursor, request);
         statisticClient.createHit(new HitDto(
                 null,
                 "ewm-main-service",
                 request.getRequestURI(),
                 request.getRemoteAddr(),
                 LocalDateTime.now().format(formatter)));
-        return eventService.getEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+        GeoFilter geo = new GeoFilter(lat, lon, radius, minLat, minLon, maxLat, maxLon);
+        if (cursor != null) {
+            return PageCursor.toResponse(eventService.getEvents(text, categories, paid, rangeStart, rangeEnd,
+                    onlyAvailable, geo, sort, PageCursor.decode(cursor), size));
+        }
+        return ResponseEntity.ok(eventService.getEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
+                geo, sort, from, size));
     }
 
     @GetMapping("/{eventId}")
@@ -73,6 +94,15 @@ public class EventController {
         return eventService.getEvent(eventId);
     }
 
+    @GetMapping("/{eventId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable @Positive Long eventId,
+                                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос /events/{eventId}/comments getComments c eventId = {}, size = {}, cursor = {}",
+                eventId, size, cursor);
+        return PageCursor.toResponse(commentService.getComments(eventId, PageCursor.decode(cursor), size));
+    }
+
     @PostMapping("/{eventId}/comments/{userId}")
     @ResponseStatus(HttpStatus.CREATED)
     public CommentDto createComment(@PathVariable @Positive Long eventId, @PathVariable @Positive Long userId,
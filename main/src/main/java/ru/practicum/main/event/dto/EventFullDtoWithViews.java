@@ -34,5 +34,6 @@ public class EventFullDtoWithViews {
     private EventStatus state;
     private String title;
     private Integer views;
+    private Long commentsCount;
     private List<CommentDto> comments;
 }
\ No newline at end of file
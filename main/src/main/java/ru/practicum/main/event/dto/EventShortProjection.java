@@ -0,0 +1,34 @@
+package ru.practicum.main.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class EventShortProjection {
+    private Long id;
+    private String annotation;
+    private Long categoryId;
+    private String categoryName;
+    private Integer confirmedRequests;
+    private LocalDateTime eventDate;
+    private Long initiatorId;
+    private String initiatorName;
+    private Boolean paid;
+    private String title;
+    private LocalDateTime createdOn;
+    private LocalDateTime publishedOn;
+    private Long views;
+    private Long commentCount;
+    private Double distance;
+
+    public EventShortProjection(Long id, String annotation, Long categoryId, String categoryName,
+                                Integer confirmedRequests, LocalDateTime eventDate, Long initiatorId,
+                                String initiatorName, Boolean paid, String title, LocalDateTime createdOn,
+                                LocalDateTime publishedOn, Long views, Long commentCount) {
+        this(id, annotation, categoryId, categoryName, confirmedRequests, eventDate, initiatorId, initiatorName,
+                paid, title, createdOn, publishedOn, views, commentCount, null);
+    }
+}
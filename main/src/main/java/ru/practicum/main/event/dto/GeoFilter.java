@@ -0,0 +1,24 @@
+package ru.practicum.main.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GeoFilter {
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private Double minLat;
+    private Double minLon;
+    private Double maxLat;
+    private Double maxLon;
+
+    public boolean hasPoint() {
+        return lat != null && lon != null;
+    }
+
+    public boolean hasBox() {
+        return minLat != null || minLon != null || maxLat != null || maxLon != null;
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.main.event.mapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.comment.dto.CommentDto;
@@ -10,6 +11,7 @@ import ru.practicum.main.enumeration.EventStatus;
 import ru.practicum.main.event.dto.*;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.location.mapper.LocationMapper;
+import ru.practicum.main.user.dto.UserShort;
 import ru.practicum.main.user.mapper.UserMapper;
 import ru.practicum.main.user.model.User;
 
@@ -37,7 +39,9 @@ public final class EventMapper {
                 LocalDateTime.now(),
                 newEventDto.getRequestModeration(),
                 EventStatus.PENDING,
-                newEventDto.getTitle()
+                newEventDto.getTitle(),
+                0L,
+                0L
         );
     }
 
@@ -74,6 +78,50 @@ public final class EventMapper {
         );
     }
 
+    public static EventShort projectionToShort(EventShortProjection event) {
+        return new EventShort(
+                event.getId(),
+                event.getAnnotation(),
+                new CategoryDto(event.getCategoryId(), event.getCategoryName()),
+                event.getConfirmedRequests(),
+                event.getEventDate(),
+                new UserShort(event.getInitiatorId(), event.getInitiatorName()),
+                event.getPaid(),
+                event.getTitle()
+        );
+    }
+
+    public static EventShortWithViews projectionToShortWithViews(EventShortProjection event, int views) {
+        return new EventShortWithViews(
+                event.getId(),
+                event.getAnnotation(),
+                new CategoryDto(event.getCategoryId(), event.getCategoryName()),
+                event.getConfirmedRequests(),
+                event.getEventDate(),
+                new UserShort(event.getInitiatorId(), event.getInitiatorName()),
+                event.getPaid(),
+                event.getTitle(),
+                views
+        );
+    }
+
+    public static List<EventShortWithViews> projectionToShortWithViews(Iterable<EventShortProjection> events,
+                                                                       Map<Long, Integer> views) {
+        List<EventShortWithViews> eventDtoList = new ArrayList<>();
+        for (EventShortProjection event : events) {
+            eventDtoList.add(projectionToShortWithViews(event, views.getOrDefault(event.getId(), 0)));
+        }
+        return eventDtoList;
+    }
+
+    public static List<EventShort> projectionToShort(Iterable<EventShortProjection> events) {
+        List<EventShort> eventDtoList = new ArrayList<>();
+        for (EventShortProjection event : events) {
+            eventDtoList.add(projectionToShort(event));
+        }
+        return eventDtoList;
+    }
+
     public static EventShortWithViews eventToShortWithViews(Event event, int views) {
         return new EventShortWithViews(
                 event.getId(),
@@ -106,7 +154,8 @@ public final class EventMapper {
         return eventDtoList;
     }
 
-    public static EventFullDtoWithViews eventToDtoWithViews(Event event, int views, List<CommentDto> comments) {
+    public static EventFullDtoWithViews eventToDtoWithViews(Event event, int views, long commentsCount,
+                                                            List<CommentDto> comments) {
         return new EventFullDtoWithViews(
                 event.getId(),
                 event.getAnnotation(),
@@ -124,10 +173,34 @@ public final class EventMapper {
                 event.getState(),
                 event.getTitle(),
                 views,
+                commentsCount,
                 comments
         );
     }
 
+    public static EventFullDtoWithViews withViews(EventFullDtoWithViews event, int views) {
+        return new EventFullDtoWithViews(
+                event.getId(),
+                event.getAnnotation(),
+                event.getCategory(),
+                event.getConfirmedRequests(),
+                event.getCreatedOn(),
+                event.getDescription(),
+                event.getEventDate(),
+                event.getInitiator(),
+                event.getLocation(),
+                event.getPaid(),
+                event.getParticipantLimit(),
+                event.getPublishedOn(),
+                event.getRequestModeration(),
+                event.getState(),
+                event.getTitle(),
+                views,
+                event.getCommentsCount(),
+                event.getComments()
+        );
+    }
+
     public static List<EventFullDtoWithViews> eventToDtoWithViews(Iterable<Event> events, Map<Long, Integer> views,
                                                                   Map<Long, List<CommentDto>> commentsMap) {
         List<EventFullDtoWithViews> eventDtoList = new ArrayList<>();
@@ -136,7 +209,7 @@ public final class EventMapper {
         for (Event event : events) {
             eventViews = views.getOrDefault(event.getId(), 0);
             comments = commentsMap.getOrDefault(event.getId(), List.of());
-            eventDtoList.add(eventToDtoWithViews(event, eventViews, comments));
+            eventDtoList.add(eventToDtoWithViews(event, eventViews, event.getCommentCount(), comments));
         }
         return eventDtoList;
     }
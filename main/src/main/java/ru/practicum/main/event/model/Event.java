@@ -25,7 +25,7 @@ public class Event {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
-    @Column(name = "confirmed_requests")
+    @Column(name = "confirmed_requests", updatable = false)
     private Integer confirmedRequests;
     @Column(name = "created_on")
     private LocalDateTime createdOn;
@@ -48,4 +48,8 @@ public class Event {
     @Enumerated(value = EnumType.STRING)
     private EventStatus state;
     private String title;
+    @Column(insertable = false, updatable = false)
+    private Long views;
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private Long commentCount;
 }
\ No newline at end of file
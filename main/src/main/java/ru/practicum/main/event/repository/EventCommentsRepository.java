@@ -0,0 +1,43 @@
+package ru.practicum.main.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class EventCommentsRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Long findLastIdOfBatch(long afterId, int size) {
+        return jdbcTemplate.queryForObject("SELECT MAX(event_id) FROM " +
+                        "(SELECT event_id FROM events WHERE event_id > :afterId ORDER BY event_id LIMIT :size) batch",
+                new MapSqlParameterSource()
+                        .addValue("afterId", afterId)
+                        .addValue("size", size),
+                Long.class);
+    }
+
+    public void lockBatch(long afterId, long lastId) {
+        jdbcTemplate.queryForList("SELECT event_id FROM events " +
+                        "WHERE event_id > :afterId AND event_id <= :lastId ORDER BY event_id FOR UPDATE",
+                new MapSqlParameterSource()
+                        .addValue("afterId", afterId)
+                        .addValue("lastId", lastId),
+                Long.class);
+    }
+
+    public int reconcileCommentCounts(long afterId, long lastId) {
+        return jdbcTemplate.update("UPDATE events e SET comment_count = counts.comments " +
+                        "FROM (SELECT ev.event_id, COUNT(c.comment_id) AS comments FROM events ev " +
+                        "LEFT JOIN comments c ON c.event_id = ev.event_id " +
+                        "WHERE ev.event_id > :afterId AND ev.event_id <= :lastId " +
+                        "GROUP BY ev.event_id) counts " +
+                        "WHERE e.event_id = counts.event_id AND e.comment_count <> counts.comments",
+                new MapSqlParameterSource()
+                        .addValue("afterId", afterId)
+                        .addValue("lastId", lastId));
+    }
+}
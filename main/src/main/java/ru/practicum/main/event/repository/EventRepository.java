@@ -3,24 +3,76 @@ package ru.practicum.main.event.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main.enumeration.EventStatus;
+import ru.practicum.main.event.dto.EventShortProjection;
 import ru.practicum.main.event.model.Event;
 
+import javax.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
 
-    List<Event> findByInitiatorId(Long userId, Pageable pageable);
+    @Query("SELECT new ru.practicum.main.event.dto.EventShortProjection(e.id, e.annotation, c.id, c.name, " +
+            "e.confirmedRequests, e.eventDate, i.id, i.name, e.paid, e.title, e.createdOn, e.publishedOn, e.views, " +
+            "e.commentCount) " +
+            "FROM Event e " +
+            "JOIN e.category c " +
+            "JOIN e.initiator i " +
+            "WHERE i.id = :userId " +
+            "ORDER BY e.id")
+    List<EventShortProjection> findShortByInitiatorId(Long userId, Pageable pageable);
 
+    @Query("SELECT new ru.practicum.main.event.dto.EventShortProjection(e.id, e.annotation, c.id, c.name, " +
+            "e.confirmedRequests, e.eventDate, i.id, i.name, e.paid, e.title, e.createdOn, e.publishedOn, e.views, " +
+            "e.commentCount) " +
+            "FROM Event e " +
+            "JOIN e.category c " +
+            "JOIN e.initiator i " +
+            "WHERE i.id = :userId AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EventShortProjection> findShortByInitiatorIdAfter(Long userId, Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     List<Event> findAllByIdIn(Set<Long> events);
 
     Event findFirstByCategoryId(Long catId);
 
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     Event findByIdAndState(Long eventId, EventStatus statusParticipation);
 
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     Event findByIdAndInitiatorId(Long eventId, Long userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findByIdForUpdate(Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :count " +
+            "WHERE e.id = :eventId " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests + :count <= e.participantLimit)")
+    int incrementConfirmedRequests(Long eventId, int count);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests - 1 " +
+            "WHERE e.id = :eventId AND e.confirmedRequests > 0")
+    int decrementConfirmedRequests(Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.commentCount = e.commentCount + 1 WHERE e.id = :eventId")
+    int incrementCommentCount(Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.commentCount = e.commentCount - 1 WHERE e.id = :eventId AND e.commentCount > 0")
+    int decrementCommentCount(Long eventId);
+
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     Page<Event> findAll(Specification<Event> spec, Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.main.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.main.event.dto.EventShortProjection;
+import ru.practicum.main.event.model.Event;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    List<EventShortProjection> findShortEvents(Specification<Event> spec, Pageable pageable);
+
+    List<EventShortProjection> findShortEventsByDistance(Specification<Event> spec, double lat, double lon,
+                                                         Pageable pageable);
+
+    List<EventShortProjection> findShortEventsByRelevance(Specification<Event> spec, String text, Pageable pageable);
+
+    List<Event> findEvents(Specification<Event> spec, Pageable pageable);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.main.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.dto.EventShortProjection;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.user.model.User;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventShortProjection> findShortEvents(Specification<Event> spec, Pageable pageable) {
+        return findShortEvents(spec, pageable, null, null, null);
+    }
+
+    @Override
+    public List<EventShortProjection> findShortEventsByDistance(Specification<Event> spec, double lat, double lon,
+                                                                Pageable pageable) {
+        return findShortEvents(spec, pageable, lat, lon, null);
+    }
+
+    @Override
+    public List<EventShortProjection> findShortEventsByRelevance(Specification<Event> spec, String text,
+                                                                 Pageable pageable) {
+        return findShortEvents(spec, pageable, null, null, text);
+    }
+
+    private List<EventShortProjection> findShortEvents(Specification<Event> spec, Pageable pageable,
+                                                       Double lat, Double lon, String text) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShortProjection> query = cb.createQuery(EventShortProjection.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category");
+        Join<Event, User> initiator = root.join("initiator");
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                root.get("id"),
+                root.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                root.get("confirmedRequests"),
+                root.get("eventDate"),
+                initiator.get("id"),
+                initiator.get("name"),
+                root.get("paid"),
+                root.get("title"),
+                root.get("createdOn"),
+                root.get("publishedOn"),
+                root.get("views"),
+                root.get("commentCount")));
+        Expression<Double> distance = null;
+        if (lat != null && lon != null) {
+            distance = cb.function("location_distance_km", Double.class,
+                    root.get("location").get("lat"), root.get("location").get("lon"), cb.literal(lat), cb.literal(lon));
+            selections.add(distance);
+        }
+        query.select(cb.construct(EventShortProjection.class, selections.toArray(new Selection<?>[0])));
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        if (distance != null) {
+            query.orderBy(cb.asc(distance), cb.asc(root.get("id")));
+        } else if (text != null) {
+            query.orderBy(
+                    cb.desc(cb.function("event_search_rank", Float.class,
+                            root.get("annotation"), root.get("description"), cb.literal(text))),
+                    cb.desc(root.get("id")));
+        } else if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<Event> findEvents(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        EntityGraph<Event> graph = entityManager.createEntityGraph(Event.class);
+        graph.addAttributeNodes("category", "initiator", "location");
+        return entityManager.createQuery(query)
+                .setHint("javax.persistence.loadgraph", graph)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
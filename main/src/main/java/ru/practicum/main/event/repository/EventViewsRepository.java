@@ -0,0 +1,41 @@
+package ru.practicum.main.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.main.enumeration.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class EventViewsRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<Long, LocalDateTime> findPublishedAfter(long afterId, int size) {
+        Map<Long, LocalDateTime> events = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT event_id, published_on FROM events " +
+                        "WHERE state = :state AND event_id > :afterId ORDER BY event_id LIMIT :size",
+                new MapSqlParameterSource()
+                        .addValue("state", EventStatus.PUBLISHED.name())
+                        .addValue("afterId", afterId)
+                        .addValue("size", size),
+                (RowCallbackHandler) rs ->
+                        events.put(rs.getLong("event_id"), rs.getTimestamp("published_on").toLocalDateTime()));
+        return events;
+    }
+
+    public void updateViews(Map<Long, Long> views) {
+        jdbcTemplate.batchUpdate("UPDATE events SET views = :views WHERE event_id = :eventId AND views <> :views",
+                views.entrySet().stream()
+                        .map(entry -> new MapSqlParameterSource()
+                                .addValue("eventId", entry.getKey())
+                                .addValue("views", entry.getValue()))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+}
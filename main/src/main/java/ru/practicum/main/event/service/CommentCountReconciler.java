@@ -0,0 +1,63 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.event.repository.EventCommentsRepository;
+import ru.practicum.main.util.AdvisoryLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentCountReconciler {
+
+    private static final String LOCK_NAME = "comment-count-reconcile";
+
+    private final EventCommentsRepository eventCommentsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvisoryLock advisoryLock;
+    @Value("${comments.count-reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${comments.count-reconcile.interval-ms:3600000}",
+            initialDelayString = "${comments.count-reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        if (!advisoryLock.runExclusively(LOCK_NAME, this::reconcileAll)) {
+            log.info("Сверка количества комментариев уже выполняется на другом экземпляре");
+        }
+    }
+
+    private void reconcileAll() {
+        long lastEventId = 0;
+        int repaired = 0;
+        Long batchLastId = eventCommentsRepository.findLastIdOfBatch(lastEventId, batchSize);
+        while (batchLastId != null) {
+            try {
+                repaired += reconcileBatch(lastEventId, batchLastId);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось сверить количество комментариев событий после id = {}", lastEventId, e);
+                return;
+            }
+            lastEventId = batchLastId;
+            batchLastId = eventCommentsRepository.findLastIdOfBatch(lastEventId, batchSize);
+        }
+        if (repaired > 0) {
+            log.info("Исправлено количество комментариев у событий: {}", repaired);
+        }
+    }
+
+    /**
+     * Строки событий пакета блокируются до пересчёта, поэтому инкременты из параллельно создаваемых
+     * комментариев ждут окончания пересчёта и не теряются.
+     */
+    private int reconcileBatch(long afterId, long lastId) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            eventCommentsRepository.lockBatch(afterId, lastId);
+            return eventCommentsRepository.reconcileCommentCounts(afterId, lastId);
+        });
+        return repaired == null ? 0 : repaired;
+    }
+}
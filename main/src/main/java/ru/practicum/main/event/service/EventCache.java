@@ -0,0 +1,73 @@
+package ru.practicum.main.event.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.enumeration.EntityType;
+import ru.practicum.main.event.dto.EventFullDtoWithViews;
+import ru.practicum.main.util.CacheFlushEvent;
+import ru.practicum.main.util.EntityChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class EventCache {
+
+    private final Cache<Long, EventFullDtoWithViews> events;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong generation = new AtomicLong();
+
+    public EventCache(PlatformTransactionManager transactionManager,
+                      @Value("${events.cache.maximum-size:10000}") long maximumSize,
+                      @Value("${events.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.events = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Загрузка идёт в собственной читающей транзакции. Результат попадает в кэш, только если
+     * за время загрузки не было инвалидаций, иначе загрузчик, начавший читать до коммита
+     * изменения, вернул бы в кэш устаревшую копию.
+     */
+    public EventFullDtoWithViews get(Long eventId, Function<Long, EventFullDtoWithViews> loader) {
+        EventFullDtoWithViews cached = events.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedGeneration = generation.get();
+        EventFullDtoWithViews loaded = transactionTemplate.execute(status -> loader.apply(eventId));
+        events.asMap().compute(eventId, (id, current) -> generation.get() == loadedGeneration ? loaded : current);
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getType() == EntityType.EVENT) {
+            generation.incrementAndGet();
+            events.invalidate(event.getId());
+        } else if (event.getType() == EntityType.CATEGORY) {
+            invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onCacheFlush(CacheFlushEvent event) {
+        invalidateAll();
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        events.invalidateAll();
+    }
+}
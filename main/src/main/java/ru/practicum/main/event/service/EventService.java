@@ -3,6 +3,8 @@ package ru.practicum.main.event.service;
 import ru.practicum.main.enumeration.EventSort;
 import ru.practicum.main.enumeration.EventStatus;
 import ru.practicum.main.event.dto.*;
+import ru.practicum.main.util.CursorSlice;
+import ru.practicum.main.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,6 +13,8 @@ public interface EventService {
 
     List<EventShort> getEventsByInitiator(Long userId, Integer from, Integer size);
 
+    CursorSlice<EventShort> getEventsByInitiator(Long userId, PageCursor cursor, Integer size);
+
     EventFullDto createEvent(Long userId, NewEventDto newEventDto);
 
     EventFullDtoWithViews getEventByInitiator(Long userId, Long eventId);
@@ -20,11 +24,19 @@ public interface EventService {
     List<EventFullDtoWithViews> getEventsByAdmin(List<Long> users, EventStatus status, List<Long> categories,
                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size);
 
+    CursorSlice<EventFullDtoWithViews> getEventsByAdmin(List<Long> users, EventStatus status, List<Long> categories,
+                                                  LocalDateTime rangeStart, LocalDateTime rangeEnd, PageCursor cursor,
+                                                  Integer size);
+
     EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest updateEventAdminRequest);
 
     EventFullDtoWithViews getEvent(Long eventId);
 
     List<EventShortWithViews> getEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                               LocalDateTime rangeEnd, Boolean onlyAvailable, EventSort sort, Integer from,
-                               Integer size);
+                               LocalDateTime rangeEnd, Boolean onlyAvailable, GeoFilter geo, EventSort sort,
+                               Integer from, Integer size);
+
+    CursorSlice<EventShortWithViews> getEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
+                                         LocalDateTime rangeEnd, Boolean onlyAvailable, GeoFilter geo,
+                                         EventSort sort, PageCursor cursor, Integer size);
 }
\ No newline at end of file
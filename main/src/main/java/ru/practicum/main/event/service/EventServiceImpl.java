@@ -1,17 +1,20 @@
 package ru.practicum.main.event.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
-import ru.practicum.main.category.repository.CategoryRepository;
-import ru.practicum.main.comment.dto.CommentDto;
-import ru.practicum.main.comment.mapper.CommentMapper;
-import ru.practicum.main.comment.model.Comment;
+import ru.practicum.main.category.service.CategoryCache;
 import ru.practicum.main.comment.repository.CommentRepository;
+import ru.practicum.main.enumeration.EntityType;
 import ru.practicum.main.enumeration.EventSort;
 import ru.practicum.main.enumeration.EventStatus;
 import ru.practicum.main.enumeration.StateAction;
@@ -25,12 +28,16 @@ import ru.practicum.main.exception.ObjectValidationException;
 import ru.practicum.main.location.repository.LocationRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorSlice;
+import ru.practicum.main.util.EntityChangedEvent;
+import ru.practicum.main.util.PageCursor;
 import ru.practicum.main.util.StatisticsUtil;
 
 import javax.persistence.criteria.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,13 +47,18 @@ import java.util.stream.Stream;
 public class EventServiceImpl implements EventService {
 
     private final EventRepository eventRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final UserRepository userRepository;
     private final LocationRepository locationRepository;
     private final CommentRepository commentRepository;
     private final StatisticsUtil statisticsUtil;
+    private final EventCache eventCache;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${comments.latest-size:10}")
+    private int latestCommentsSize;
     private static final int MINIMUM_HOURS_BEFORE_TO_CREATE_EVENT = 2;
     private static final int MINIMUM_HOURS_BEFORE_EVENT_ADMIN_UPDATE = 1;
+    private static final double KM_PER_DEGREE_LAT = 110.574;
 
     @Override
     public EventFullDto createEvent(Long userId, NewEventDto newEventDto) {
@@ -56,7 +68,7 @@ public class EventServiceImpl implements EventService {
             throw new ObjectValidationException(
                     String.format("Дата события должна быть не менее чем за %d часа до публикации", MINIMUM_HOURS_BEFORE_TO_CREATE_EVENT));
         }
-        Category category = categoryRepository.findById(newEventDto.getCategory()).orElseThrow(
+        Category category = categoryCache.find(newEventDto.getCategory()).map(CategoryMapper::categoryFromDto).orElseThrow(
                 () -> new ObjectValidationException(String.format("Категория с id = %d не найдена", newEventDto.getCategory())));
         User initiator = userRepository.findById(userId).orElseThrow(
                 () -> new ObjectValidationException(String.format("Пользователь с id = %d не найден", userId)));
@@ -85,6 +97,7 @@ public class EventServiceImpl implements EventService {
             event.setState(EventStatus.PENDING);
         }
         changeEventProperties(event, updateEventUserRequest);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, eventId));
         return EventMapper.eventToDto(eventRepository.save(event));
     }
 
@@ -93,15 +106,24 @@ public class EventServiceImpl implements EventService {
     public EventFullDtoWithViews getEventByInitiator(Long userId, Long eventId) {
         Event event = checkEvent(eventId, userId);
         int views = statisticsUtil.getAmountOfViews(event.getPublishedOn(), new String[]{String.format("/events/%d", eventId)});
-        List<Comment> comments = commentRepository.findAllByEventId(eventId);
-        return EventMapper.eventToDtoWithViews(event, views, CommentMapper.commentToDto(comments));
+        return EventMapper.eventToDtoWithViews(event, views, event.getCommentCount(),
+                commentRepository.findLatestByEventId(eventId, PageRequest.of(0, latestCommentsSize)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<EventShort> getEventsByInitiator(Long userId, Integer from, Integer size) {
-        List<Event> events = eventRepository.findByInitiatorId(userId, PageRequest.of(from, size));
-        return EventMapper.eventToShort(events);
+        List<EventShortProjection> events = eventRepository.findShortByInitiatorId(userId, PageRequest.of(from, size));
+        return EventMapper.projectionToShort(events);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<EventShort> getEventsByInitiator(Long userId, PageCursor cursor, Integer size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<EventShortProjection> events = eventRepository.findShortByInitiatorIdAfter(userId,
+                cursor != null ? cursor.getId() : 0L, pageable);
+        return toSlice(events, size, EventMapper::projectionToShort, event -> PageCursor.of(event.getId()));
     }
 
     @Override
@@ -109,32 +131,22 @@ public class EventServiceImpl implements EventService {
     public List<EventFullDtoWithViews> getEventsByAdmin(List<Long> users, EventStatus status, List<Long> categories,
                                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from, size);
-        List<Event> events = eventRepository.findAll((root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (users != null) {
-                predicates.add(root.get("initiator").in(users));
-            }
-            if (status != null) {
-                predicates.add(cb.equal(root.get("state"), status));
-            }
-            if (categories != null) {
-                predicates.add(root.join("category").get("id").in(categories));
-            }
-            if (rangeStart != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("eventDate"), rangeStart));
-            }
-            if (rangeEnd != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("eventDate"), rangeEnd));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        }, pageable).getContent();
-        LocalDateTime minStartTime = events.parallelStream()
-                .sorted(Comparator.comparing(Event::getCreatedOn))
-                .collect(Collectors.toList()).get(0).getPublishedOn();
-        String[] uri = events.stream().map(event -> "/events/" + event.getId()).toArray(String[]::new);
-        List<Long> eventIds = events.stream().map(Event::getId).collect(Collectors.toList());
-        Map<Long, List<CommentDto>> commentsMap = groupCommentsByEventId(CommentMapper.commentToDto(commentRepository.findAllByEventIdIn(eventIds)));
-        return EventMapper.eventToDtoWithViews(events, statisticsUtil.getMapOfViews(minStartTime, uri), commentsMap);
+        List<Event> events = eventRepository.findAll(
+                getAdminSpecification(users, status, categories, rangeStart, rangeEnd), pageable).getContent();
+        return toFullDtoWithViews(events);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<EventFullDtoWithViews> getEventsByAdmin(List<Long> users, EventStatus status,
+                                                               List<Long> categories, LocalDateTime rangeStart,
+                                                               LocalDateTime rangeEnd, PageCursor cursor, Integer size) {
+        Specification<Event> spec = getAdminSpecification(users, status, categories, rangeStart, rangeEnd);
+        if (cursor != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.get("id"), cursor.getId()));
+        }
+        List<Event> events = eventRepository.findEvents(spec, PageRequest.of(0, size + 1, Sort.by("id")));
+        return toSlice(events, size, this::toFullDtoWithViews, event -> PageCursor.of(event.getId()));
     }
 
     @Override
@@ -161,36 +173,176 @@ public class EventServiceImpl implements EventService {
                 EventStatus.PUBLISHED : EventStatus.CANCELED);
         locationRepository.saveAndFlush(event.getLocation());
         eventRepository.saveAndFlush(event);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, eventId));
         return EventMapper.eventToDto(eventRepository.getReferenceById(eventId));
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EventFullDtoWithViews getEvent(Long eventId) {
+        EventFullDtoWithViews event = eventCache.get(eventId, this::loadPublishedEvent);
+        int views = statisticsUtil.getAmountOfViews(event.getPublishedOn(), new String[]{String.format("/events/%d", eventId)});
+        return EventMapper.withViews(event, views);
+    }
+
+    private EventFullDtoWithViews loadPublishedEvent(Long eventId) {
         Event event = eventRepository.findByIdAndState(eventId, EventStatus.PUBLISHED);
         if (event == null) {
             throw new ObjectNotExistException(String.format("Эвент с id = %d не был найден", eventId));
         }
-        int views = statisticsUtil.getAmountOfViews(event.getPublishedOn(), new String[]{String.format("/events/%d", eventId)});
-        List<Comment> comments = commentRepository.findAllByEventId(eventId);
-        return EventMapper.eventToDtoWithViews(event, views, CommentMapper.commentToDto(comments));
+        return EventMapper.eventToDtoWithViews(event, 0, event.getCommentCount(), List.copyOf(
+                commentRepository.findLatestByEventId(eventId, PageRequest.of(0, latestCommentsSize))));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<EventShortWithViews> getEvents(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                                               LocalDateTime rangeEnd, Boolean onlyAvailable, EventSort sort, Integer from, Integer size) {
+                                               LocalDateTime rangeEnd, Boolean onlyAvailable, GeoFilter geo,
+                                               EventSort sort, Integer from, Integer size) {
+        Specification<Event> spec = getPublicSpecification(text, categories, paid, rangeStart, rangeEnd, onlyAvailable)
+                .and(getGeoSpecification(geo));
+        if (sort == EventSort.DISTANCE) {
+            checkDistanceSort(geo);
+            return toShortWithViews(eventRepository.findShortEventsByDistance(spec, geo.getLat(), geo.getLon(),
+                    PageRequest.of(from, size)));
+        }
+        if (sort == EventSort.RELEVANCE) {
+            if (text == null || text.isBlank()) {
+                throw new ObjectValidationException("Сортировка по релевантности возможна только вместе с параметром text");
+            }
+            return toShortWithViews(eventRepository.findShortEventsByRelevance(spec, text, PageRequest.of(from, size)));
+        }
+        return toShortWithViews(eventRepository.findShortEvents(spec, PageRequest.of(from, size, sort.descending())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<EventShortWithViews> getEvents(String text, List<Long> categories, Boolean paid,
+                                                      LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                      Boolean onlyAvailable, GeoFilter geo, EventSort sort,
+                                                      PageCursor cursor, Integer size) {
+        if (sort == EventSort.RELEVANCE) {
+            throw new ObjectValidationException(String.format("Постраничный вывод по курсору не поддерживает сортировку %s", sort));
+        }
+        Specification<Event> spec = getPublicSpecification(text, categories, paid, rangeStart, rangeEnd, onlyAvailable)
+                .and(getGeoSpecification(geo));
+        if (sort == EventSort.DISTANCE) {
+            checkDistanceSort(geo);
+            if (cursor != null) {
+                spec = spec.and(seekAfterDistance(geo.getLat(), geo.getLon(), cursor.getDoubleKey(), cursor.getId()));
+            }
+            return toSlice(eventRepository.findShortEventsByDistance(spec, geo.getLat(), geo.getLon(),
+                            PageRequest.of(0, size + 1)), size, this::toShortWithViews,
+                    event -> PageCursor.of(event.getDistance(), event.getId()));
+        }
+        if (cursor != null) {
+            spec = spec.and(sort == EventSort.EVENT_DATE ?
+                    seekAfter("eventDate", cursor.getDateKey(), cursor.getId()) :
+                    seekAfter(sort == EventSort.VIEWS ? "views" : "commentCount", cursor.getLongKey(), cursor.getId()));
+        }
+        Pageable pageable = PageRequest.of(0, size + 1, sort.descending());
+        return toSlice(eventRepository.findShortEvents(spec, pageable), size, this::toShortWithViews,
+                event -> sort == EventSort.EVENT_DATE ?
+                        PageCursor.of(event.getEventDate(), event.getId()) :
+                        PageCursor.of(sort == EventSort.VIEWS ? event.getViews() : event.getCommentCount(), event.getId()));
+    }
+
+    private Specification<Event> getGeoSpecification(GeoFilter geo) {
+        if (geo == null) {
+            return null;
+        }
+        if ((geo.getLat() == null) != (geo.getLon() == null)) {
+            throw new ObjectValidationException("Координаты lat и lon должны передаваться вместе");
+        }
+        if (geo.getRadius() != null && !geo.hasPoint()) {
+            throw new ObjectValidationException("Поиск в радиусе возможен только вместе с параметрами lat и lon");
+        }
+        if (geo.hasBox() && (geo.getMinLat() == null || geo.getMinLon() == null
+                || geo.getMaxLat() == null || geo.getMaxLon() == null)) {
+            throw new ObjectValidationException("Для поиска в области необходимы minLat, minLon, maxLat и maxLon");
+        }
+        if (geo.hasBox() && (geo.getMinLat() > geo.getMaxLat() || geo.getMinLon() > geo.getMaxLon())) {
+            throw new ObjectValidationException("Минимальные координаты области должны быть не больше максимальных");
+        }
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<Float> lat = root.get("location").get("lat");
+            Path<Float> lon = root.get("location").get("lon");
+            if (geo.hasBox()) {
+                predicates.add(inBox(cb, lat, lon, geo.getMinLat(), geo.getMinLon(), geo.getMaxLat(), geo.getMaxLon()));
+            }
+            if (geo.getRadius() != null) {
+                double latDelta = geo.getRadius() / KM_PER_DEGREE_LAT;
+                double farthestLat = Math.min(90, Math.abs(geo.getLat()) + latDelta);
+                double lonDelta = farthestLat >= 90 ? 180 :
+                        geo.getRadius() / (KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(farthestLat)));
+                predicates.add(inRadiusBox(cb, lat, lon, Math.max(-90, geo.getLat() - latDelta),
+                        Math.min(90, geo.getLat() + latDelta), geo.getLon() - lonDelta, geo.getLon() + lonDelta));
+                predicates.add(cb.lessThanOrEqualTo(distanceFrom(root, cb, geo.getLat(), geo.getLon()), geo.getRadius()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Долготный диапазон, пересекающий ±180, делится на два, иначе точки по другую
+     * сторону антимеридиана не попадали бы в выборку.
+     */
+    private Predicate inRadiusBox(CriteriaBuilder cb, Path<Float> lat, Path<Float> lon,
+                                  double minLat, double maxLat, double minLon, double maxLon) {
+        if (maxLon - minLon >= 360) {
+            return inBox(cb, lat, lon, minLat, -180, maxLat, 180);
+        }
+        if (minLon < -180) {
+            return cb.or(inBox(cb, lat, lon, minLat, minLon + 360, maxLat, 180),
+                    inBox(cb, lat, lon, minLat, -180, maxLat, maxLon));
+        }
+        if (maxLon > 180) {
+            return cb.or(inBox(cb, lat, lon, minLat, minLon, maxLat, 180),
+                    inBox(cb, lat, lon, minLat, -180, maxLat, maxLon - 360));
+        }
+        return inBox(cb, lat, lon, minLat, minLon, maxLat, maxLon);
+    }
+
+    private Predicate inBox(CriteriaBuilder cb, Path<Float> lat, Path<Float> lon,
+                            double minLat, double minLon, double maxLat, double maxLon) {
+        return cb.isTrue(cb.function("location_in_box", Boolean.class, lat, lon,
+                cb.literal(minLat), cb.literal(minLon), cb.literal(maxLat), cb.literal(maxLon)));
+    }
+
+    private Expression<Double> distanceFrom(Root<Event> root, CriteriaBuilder cb, double lat, double lon) {
+        return cb.function("location_distance_km", Double.class,
+                root.get("location").get("lat"), root.get("location").get("lon"), cb.literal(lat), cb.literal(lon));
+    }
+
+    private void checkDistanceSort(GeoFilter geo) {
+        if (geo == null || !geo.hasPoint()) {
+            throw new ObjectValidationException("Сортировка по расстоянию возможна только вместе с параметрами lat и lon");
+        }
+    }
+
+    private Specification<Event> seekAfterDistance(double lat, double lon, double distance, long id) {
+        return (root, query, cb) -> {
+            Expression<Double> distanceFrom = distanceFrom(root, cb, lat, lon);
+            return cb.or(
+                    cb.greaterThan(distanceFrom, distance),
+                    cb.and(cb.equal(distanceFrom, distance), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    private Specification<Event> getPublicSpecification(String text, List<Long> categories, Boolean paid,
+                                                        LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                        Boolean onlyAvailable) {
         final LocalDateTime finalRangeStart = rangeStart != null ? rangeStart : LocalDateTime.now();
         final LocalDateTime finalRangeEnd = rangeEnd != null ? rangeEnd : finalRangeStart.plusYears(1);
         if (finalRangeStart.isAfter(finalRangeEnd)) {
             throw new ObjectValidationException("Дата начала сортировки должна быть ранее конца сортировки");
         }
-        Specification<Event> spec = (root, query, cb) -> {
+        return (root, query, cb) -> {
             Predicate[] predicates = {
                     cb.equal(root.get("state"), EventStatus.PUBLISHED),
-                    text != null ? cb.or(
-                            cb.like(cb.lower(root.get("annotation")), "%" + text.toLowerCase() + "%"),
-                            cb.like(cb.lower(root.get("description")), "%" + text.toLowerCase() + "%")
-                    ) : null,
+                    text != null && !text.isBlank() ? cb.isTrue(cb.function("event_search_matches", Boolean.class,
+                            root.get("annotation"), root.get("description"), cb.literal(text))) : null,
                     categories != null ? root.join("category", JoinType.INNER).get("id").in(categories) : null,
                     paid != null ? cb.equal(root.get("paid"), paid) : null,
                     cb.between(root.get("eventDate"), finalRangeStart, finalRangeEnd),
@@ -198,11 +350,69 @@ public class EventServiceImpl implements EventService {
             };
             return cb.and(Stream.of(predicates).filter(Objects::nonNull).toArray(Predicate[]::new));
         };
-        Pageable pageable = PageRequest.of(from, size, sort.descending());
-        List<Event> events = eventRepository.findAll(spec, pageable).getContent();
-        LocalDateTime minStartTime = getMinTimeFromEventList(events);
+    }
+
+    private Specification<Event> getAdminSpecification(List<Long> users, EventStatus status, List<Long> categories,
+                                                       LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (users != null) {
+                predicates.add(root.get("initiator").in(users));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("state"), status));
+            }
+            if (categories != null) {
+                predicates.add(root.join("category").get("id").in(categories));
+            }
+            if (rangeStart != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("eventDate"), rangeStart));
+            }
+            if (rangeEnd != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("eventDate"), rangeEnd));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private List<EventShortWithViews> toShortWithViews(List<EventShortProjection> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime minStartTime = events.stream()
+                .min(Comparator.comparing(EventShortProjection::getCreatedOn))
+                .map(EventShortProjection::getPublishedOn)
+                .orElseThrow();
         String[] uri = events.stream().map(event -> "/events/" + event.getId()).toArray(String[]::new);
-        return EventMapper.eventToShortWithViews(events, statisticsUtil.getMapOfViews(minStartTime, uri));
+        return EventMapper.projectionToShortWithViews(events, statisticsUtil.getMapOfViews(minStartTime, uri));
+    }
+
+    private List<EventFullDtoWithViews> toFullDtoWithViews(List<Event> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime minStartTime = events.parallelStream()
+                .sorted(Comparator.comparing(Event::getCreatedOn))
+                .collect(Collectors.toList()).get(0).getPublishedOn();
+        String[] uri = events.stream().map(event -> "/events/" + event.getId()).toArray(String[]::new);
+        List<Long> eventIds = events.stream().map(Event::getId).collect(Collectors.toList());
+        return EventMapper.eventToDtoWithViews(events, statisticsUtil.getMapOfViews(minStartTime, uri),
+                commentRepository.findLatestByEventIds(eventIds, latestCommentsSize));
+    }
+
+    private <Y extends Comparable<? super Y>> Specification<Event> seekAfter(String attribute, Y key, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<Y>get(attribute), key),
+                cb.and(cb.equal(root.get(attribute), key), cb.lessThan(root.get("id"), id)));
+    }
+
+    private <E, T> CursorSlice<T> toSlice(List<E> rows, int size, Function<List<E>, List<T>> mapper,
+                                          Function<E, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorSlice<>(mapper.apply(rows), size, null);
+        }
+        List<E> page = rows.subList(0, size);
+        return new CursorSlice<>(mapper.apply(page), size, cursorOf.apply(page.get(size - 1)));
     }
 
     private Event checkEvent(Long eventId, Long userId) {
@@ -218,8 +428,9 @@ public class EventServiceImpl implements EventService {
             event.setAnnotation(updateEventRequest.getAnnotation());
         }
         if (updateEventRequest.getCategory() != null) {
-            event.setCategory(categoryRepository.findById(updateEventRequest.getCategory().longValue()).orElseThrow(
-                    () -> new ObjectValidationException(
+            event.setCategory(categoryCache.find(updateEventRequest.getCategory().longValue())
+                    .map(CategoryMapper::categoryFromDto)
+                    .orElseThrow(() -> new ObjectValidationException(
                             String.format("Категория с id = %d, не найдена", updateEventRequest.getCategory()))));
         }
         if (updateEventRequest.getDescription() != null) {
@@ -241,19 +452,4 @@ public class EventServiceImpl implements EventService {
             event.setTitle(updateEventRequest.getTitle());
         }
     }
-
-    private LocalDateTime getMinTimeFromEventList(List<Event> events) {
-        return events.parallelStream()
-                .sorted(Comparator.comparing(Event::getCreatedOn))
-                .collect(Collectors.toList()).get(0).getPublishedOn();
-    }
-
-    private Map<Long, List<CommentDto>> groupCommentsByEventId(List<CommentDto> allComments) {
-        Map<Long, List<CommentDto>> commentsMap = new HashMap<>();
-        for (CommentDto comment : allComments) {
-            long eventId = comment.getEventId();
-            commentsMap.computeIfAbsent(eventId, k -> new ArrayList<>()).add(comment);
-        }
-        return commentsMap;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.main.event.repository.EventViewsRepository;
+import ru.practicum.main.util.AdvisoryLock;
+import ru.practicum.main.util.StatisticsUtil;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Переносит в колонку views то же количество просмотров, что отдаётся в ответах, чтобы сортировка по views
+ * совпадала с отображаемыми значениями. Колонка переписывается, пока клиенты листают выдачу по курсору,
+ * поэтому событие, чьи просмотры выросли между страницами, может выпасть из выдачи, отсортированной по views.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventViewsSynchronizer {
+
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final String LOCK_NAME = "event-views-sync";
+
+    private final EventViewsRepository eventViewsRepository;
+    private final StatisticsUtil statisticsUtil;
+    private final AdvisoryLock advisoryLock;
+    @Value("${statistic.views-sync.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${statistic.views-sync.interval-ms:60000}")
+    public void synchronize() {
+        if (!advisoryLock.runExclusively(LOCK_NAME, this::synchronizeAll)) {
+            log.info("Синхронизация просмотров событий уже выполняется на другом экземпляре");
+        }
+    }
+
+    private void synchronizeAll() {
+        long lastEventId = 0;
+        Map<Long, LocalDateTime> events = eventViewsRepository.findPublishedAfter(lastEventId, batchSize);
+        while (!events.isEmpty()) {
+            try {
+                eventViewsRepository.updateViews(loadViews(events));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось синхронизировать просмотры событий после id = {}", lastEventId, e);
+                return;
+            }
+            for (Long eventId : events.keySet()) {
+                lastEventId = eventId;
+            }
+            events = eventViewsRepository.findPublishedAfter(lastEventId, batchSize);
+        }
+    }
+
+    private Map<Long, Long> loadViews(Map<Long, LocalDateTime> events) {
+        Map<Long, Long> views = new HashMap<>();
+        events.keySet().forEach(eventId -> views.put(eventId, 0L));
+        String[] uris = events.keySet().stream().map(eventId -> EVENT_URI_PREFIX + eventId).toArray(String[]::new);
+        statisticsUtil.loadMapOfViews(Collections.min(events.values()), uris)
+                .forEach((eventId, count) -> views.computeIfPresent(eventId, (id, current) -> (long) count));
+        return views;
+    }
+}
@@ -125,4 +125,17 @@ public class ErrorHandler {
                 LocalDateTime.now()
         );
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiError handleServiceUnavailableException(final ServiceUnavailableException e) {
+        log.warn(e.getMessage());
+        return new ApiError(
+                Arrays.toString(e.getStackTrace()),
+                e.getMessage(),
+                String.format("Сервис временно недоступен, %s", e.getClass()),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.main.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.main.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main.enumeration.RequestStatus;
 import ru.practicum.main.request.model.ParticipationRequest;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -16,5 +19,28 @@ public interface RequestRepository extends JpaRepository<ParticipationRequest, L
 
     ParticipationRequest findByRequesterAndEventAndStatus(Long requester, Long event, RequestStatus status);
 
-    List<ParticipationRequest> findAllByEventAndIdIn(Long eventId, Set<Long> requestIds);
-}
\ No newline at end of file
+    List<ParticipationRequest> findAllByEventAndIdIn(Long eventId, Collection<Long> requestIds);
+
+    List<ParticipationRequest> findAllByEventAndRequesterIn(Long eventId, Set<Long> requesterIds);
+
+    long countByEventAndIdInAndStatus(Long eventId, Collection<Long> requestIds, RequestStatus status);
+
+    long countByEventAndIdIn(Long eventId, Collection<Long> requestIds);
+
+    @Modifying
+    @Query("UPDATE ParticipationRequest r SET r.status = :status " +
+            "WHERE r.event = :eventId AND r.id IN (:requestIds) AND r.status = :currentStatus")
+    int updateStatus(Long eventId, Collection<Long> requestIds, RequestStatus currentStatus, RequestStatus status);
+
+    @Modifying
+    @Query("UPDATE ParticipationRequest r SET r.status = :status " +
+            "WHERE r.event = :eventId AND r.id IN (:requestIds) AND r.status <> :status")
+    int updateStatusIfChanged(Long eventId, Collection<Long> requestIds, RequestStatus status);
+
+    @Modifying
+    @Query(value = "UPDATE requests SET status = 'CONFIRMED' " +
+            "WHERE request_id IN (SELECT request_id FROM requests " +
+            "WHERE event_id = :eventId AND request_id IN (:requestIds) AND status = 'PENDING' " +
+            "ORDER BY request_id LIMIT :limit)", nativeQuery = true)
+    int confirmPending(Long eventId, Collection<Long> requestIds, int limit);
+}
@@ -0,0 +1,307 @@
+package ru.practicum.main.request.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.enumeration.EntityType;
+import ru.practicum.main.enumeration.EventStatus;
+import ru.practicum.main.enumeration.RequestStatus;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.exception.ObjectConflictException;
+import ru.practicum.main.exception.ObjectValidationException;
+import ru.practicum.main.exception.ServiceUnavailableException;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.mapper.RequestMapper;
+import ru.practicum.main.request.model.ParticipationRequest;
+import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.EntityChangedEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class RequestAdmissionQueue implements DisposableBean {
+
+    private final RequestRepository requestRepository;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final long timeoutMs;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+
+    public RequestAdmissionQueue(RequestRepository requestRepository, EventRepository eventRepository,
+                                 UserRepository userRepository, PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${requests.admission.threads:8}") int threads,
+                                 @Value("${requests.admission.batch-size:100}") int batchSize,
+                                 @Value("${requests.admission.timeout-ms:30000}") long timeoutMs) {
+        this.requestRepository = requestRepository;
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "request-admission-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Пока заявка ждёт в очереди, по таймауту она снимается и клиент может безопасно повторить запрос.
+     * Если пакет с заявкой уже начал обрабатываться, ожидание продолжается до фиксации транзакции,
+     * иначе клиент получил бы ошибку для уже сохранённой заявки.
+     */
+    public ParticipationRequestDto admit(Long userId, Long eventId) {
+        if (stopped) {
+            throw new ServiceUnavailableException("Приём заявок на участие остановлен");
+        }
+        Admission admission = new Admission(userId);
+        Lane lane = lanes.computeIfAbsent(eventId, Lane::new);
+        while (!lane.offer(admission)) {
+            lane = lanes.computeIfAbsent(eventId, Lane::new);
+        }
+        lane.schedule();
+        try {
+            return admission.future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            if (admission.abandon()) {
+                throw new ServiceUnavailableException(String.format(
+                        "Заявка на участие в событии id = %d не обработана за %d мс, повторите запрос", eventId, timeoutMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (admission.abandon()) {
+                throw new ServiceUnavailableException("Ожидание обработки заявки на участие прервано, повторите запрос");
+            }
+        }
+        try {
+            return admission.future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        stopped = true;
+        executor.shutdown();
+        for (Lane lane : lanes.values()) {
+            Admission admission;
+            while ((admission = lane.queue.poll()) != null) {
+                if (admission.abandon()) {
+                    admission.fail(new ServiceUnavailableException("Приём заявок на участие остановлен, повторите запрос"));
+                }
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private void admitBatch(Long eventId, List<Admission> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> admitInTransaction(eventId, batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).fail(e);
+                return;
+            }
+            log.warn("Пакет заявок на участие в событии id = {} отклонён, заявки будут обработаны по одной", eventId, e);
+            batch.forEach(Admission::reset);
+            batch.forEach(admission -> admitBatch(eventId, List.of(admission)));
+            return;
+        }
+        batch.forEach(Admission::complete);
+    }
+
+    private void admitInTransaction(Long eventId, List<Admission> batch) {
+        Optional<Event> eventOptional = eventRepository.findByIdForUpdate(eventId);
+        if (eventOptional.isEmpty()) {
+            batch.forEach(admission -> admission.setError(
+                    new ObjectValidationException(String.format("Эвент с id = %d не найден", eventId))));
+            return;
+        }
+        Event event = eventOptional.get();
+        Set<Long> userIds = batch.stream().map(Admission::getUserId).collect(Collectors.toSet());
+        Set<Long> existingUsers = userRepository.findAllById(userIds).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Set<Long> requesters = requestRepository.findAllByEventAndRequesterIn(eventId, userIds).stream()
+                .map(ParticipationRequest::getRequester)
+                .collect(Collectors.toSet());
+        boolean shouldConfirmRequest = !event.getRequestModeration() || event.getParticipantLimit() == 0;
+        int confirmedRequests = event.getConfirmedRequests();
+        Map<Admission, ParticipationRequest> accepted = new LinkedHashMap<>();
+        for (Admission admission : batch) {
+            Long userId = admission.getUserId();
+            if (!existingUsers.contains(userId)) {
+                admission.setError(new ObjectValidationException(String.format("Пользователь с id = %d не найден", userId)));
+            } else if (requesters.contains(userId)) {
+                admission.setError(new ObjectConflictException("Вы уже отправили заявку на участие в событии"));
+            } else if (event.getState() != EventStatus.PUBLISHED) {
+                admission.setError(new ObjectConflictException("Вы не можете участвовать в событии, которое ещё не опубликовано"));
+            } else if (confirmedRequests >= event.getParticipantLimit() && event.getParticipantLimit() != 0) {
+                admission.setError(new ObjectConflictException("Вы не можете участвовать в событии так как был достигнут лимит запросов на участие"));
+            } else if (Objects.equals(event.getInitiator().getId(), userId)) {
+                admission.setError(new ObjectConflictException("Вы не может подавать заявку на участие в своём же событии"));
+            } else {
+                ParticipationRequest participationRequest = RequestMapper.requestFromDto(userId, eventId);
+                participationRequest.setStatus(shouldConfirmRequest ? RequestStatus.CONFIRMED : RequestStatus.PENDING);
+                if (shouldConfirmRequest) {
+                    confirmedRequests++;
+                }
+                requesters.add(userId);
+                accepted.put(admission, participationRequest);
+            }
+        }
+        requestRepository.saveAll(accepted.values());
+        int newlyConfirmed = confirmedRequests - event.getConfirmedRequests();
+        if (newlyConfirmed > 0 && eventRepository.incrementConfirmedRequests(eventId, newlyConfirmed) == 0) {
+            throw new ObjectConflictException("Вы не можете участвовать в событии так как был достигнут лимит запросов на участие");
+        }
+        if (newlyConfirmed > 0) {
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, eventId));
+        }
+        accepted.forEach((admission, request) -> admission.setResult(RequestMapper.requestToDto(request)));
+    }
+
+    private class Lane {
+        private final Long eventId;
+        private final Queue<Admission> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private boolean closed;
+
+        private Lane(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        private synchronized boolean offer(Admission admission) {
+            if (closed) {
+                return false;
+            }
+            queue.add(admission);
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Пока очередь не пуста, дренаж перезапускает сам себя, не сбрасывая флаг. Пустая полоса закрывается
+         * и удаляется под своей блокировкой, поэтому новые заявки попадают уже в новую полосу,
+         * и у события никогда не бывает двух работающих полос.
+         */
+        private void drain() {
+            try {
+                List<Admission> batch = new ArrayList<>(batchSize);
+                Admission admission;
+                while (batch.size() < batchSize && (admission = queue.poll()) != null) {
+                    if (admission.start()) {
+                        batch.add(admission);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    admitBatch(eventId, batch);
+                }
+            } finally {
+                boolean empty;
+                synchronized (this) {
+                    empty = queue.isEmpty();
+                    if (empty) {
+                        closed = true;
+                        lanes.remove(eventId, this);
+                    }
+                }
+                if (!empty) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    @RequiredArgsConstructor
+    private static class Admission {
+        private static final int PENDING = 0;
+        private static final int STARTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final Long userId;
+        private final CompletableFuture<ParticipationRequestDto> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private ParticipationRequestDto result;
+        private RuntimeException error;
+
+        private boolean start() {
+            return state.compareAndSet(PENDING, STARTED);
+        }
+
+        private boolean abandon() {
+            return state.compareAndSet(PENDING, ABANDONED);
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        private void fail(RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        private void reset() {
+            result = null;
+            error = null;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RequestService {
 
@@ -17,4 +18,7 @@ public interface RequestService {
     List<ParticipationRequestDto> getRequestEventByUser(Long userId, Long eventId);
 
     EventRequestStatusUpdateResult updateRequestStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest statusUpdateRequest);
+
+    void updateRequestStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest statusUpdateRequest,
+                             Consumer<ParticipationRequestDto> consumer);
 }
\ No newline at end of file
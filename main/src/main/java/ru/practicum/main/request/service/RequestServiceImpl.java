@@ -1,9 +1,12 @@
 package ru.practicum.main.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.main.enumeration.EventStatus;
+import ru.practicum.main.enumeration.EntityType;
 import ru.practicum.main.enumeration.RequestStatus;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
@@ -16,10 +19,12 @@ import ru.practicum.main.request.mapper.RequestMapper;
 import ru.practicum.main.request.model.ParticipationRequest;
 import ru.practicum.main.request.repository.RequestRepository;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.EntityChangedEvent;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,34 +35,15 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final RequestAdmissionQueue requestAdmissionQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${requests.status-update.batch-size:1000}")
+    private int statusUpdateBatchSize;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ParticipationRequestDto addRequest(Long userId, Long eventId) {
-        userRepository.findById(userId).orElseThrow(
-                () -> new ObjectValidationException(String.format("Пользователь с id = %d не найден", userId)));
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ObjectValidationException(String.format("Эвент с id = %d не найден", eventId)));
-        if (requestRepository.findByRequesterAndId(userId, eventId) != null) {
-            throw new ObjectConflictException("Вы уже отправили заявку на участие в событии");
-        }
-        if (event.getState() != EventStatus.PUBLISHED) {
-            throw new ObjectConflictException("Вы не можете участвовать в событии, которое ещё не опубликовано");
-        }
-        if (event.getConfirmedRequests() >= event.getParticipantLimit() && event.getParticipantLimit() != 0) {
-            throw new ObjectConflictException("Вы не можете участвовать в событии так как был достигнут лимит запросов на участие");
-        }
-        if (Objects.equals(event.getInitiator().getId(), userId)) {
-            throw new ObjectConflictException("Вы не может подавать заявку на участие в своём же событии");
-        }
-        boolean shouldConfirmRequest = !event.getRequestModeration() || event.getParticipantLimit() == 0;
-        RequestStatus status = shouldConfirmRequest ? RequestStatus.CONFIRMED : RequestStatus.PENDING;
-        ParticipationRequest participationRequest = RequestMapper.requestFromDto(userId, eventId);
-        participationRequest.setStatus(status);
-        if (shouldConfirmRequest) {
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            eventRepository.save(event);
-        }
-        return RequestMapper.requestToDto(requestRepository.save(participationRequest));
+        return requestAdmissionQueue.admit(userId, eventId);
     }
 
     @Override
@@ -66,12 +52,11 @@ public class RequestServiceImpl implements RequestService {
         if (participationRequest == null) {
             throw new ObjectValidationException(String.format("Запрос с id = %d не был найден", requestId));
         }
+        if (participationRequest.getStatus() == RequestStatus.CONFIRMED) {
+            eventRepository.decrementConfirmedRequests(participationRequest.getEvent());
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, participationRequest.getEvent()));
+        }
         participationRequest.setStatus(RequestStatus.CANCELED);
-        long eventId = participationRequest.getEvent();
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ObjectValidationException(String.format("Эвент с id = %d не найден", eventId)));
-        event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-        eventRepository.save(event);
         return RequestMapper.requestToDto(requestRepository.save(participationRequest));
     }
 
@@ -101,39 +86,82 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public EventRequestStatusUpdateResult updateRequestStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest statusUpdateRequest) {
-        Event event = eventRepository.findByIdAndInitiatorId(eventId, userId);
-        if (event == null) {
-            throw new ObjectValidationException(String.format("Эвент с id = %d не найден", eventId));
-        }
-        Set<Long> requestIds = statusUpdateRequest.getRequestIds();
-        List<ParticipationRequest> participationRequestList = requestRepository.findAllByEventAndIdIn(eventId, requestIds);
         EventRequestStatusUpdateResult requestStatusUpdateResult = new EventRequestStatusUpdateResult();
+        updateRequestStatus(userId, eventId, statusUpdateRequest, request -> {
+            if (request.getStatus() == RequestStatus.CONFIRMED) {
+                requestStatusUpdateResult.getConfirmedRequests().add(request);
+            } else {
+                requestStatusUpdateResult.getRejectedRequests().add(request);
+            }
+        });
+        return requestStatusUpdateResult;
+    }
+
+    @Override
+    public void updateRequestStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest statusUpdateRequest,
+                                    Consumer<ParticipationRequestDto> consumer) {
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .filter(found -> found.getInitiator() != null && userId.equals(found.getInitiator().getId()))
+                .orElseThrow(() -> new ObjectValidationException(String.format("Эвент с id = %d не найден", eventId)));
+        List<List<Long>> chunks = toChunks(statusUpdateRequest.getRequestIds());
         if (event.getParticipantLimit() == 0 || !event.getRequestModeration()) {
-            participationRequestList.forEach(request -> {
-                request.setStatus(RequestStatus.CONFIRMED);
-                requestStatusUpdateResult.getConfirmedRequests().add(RequestMapper.requestToDto(request));
-            });
-            event.setConfirmedRequests(event.getConfirmedRequests() + participationRequestList.size());
-        } else {
-            if (event.getConfirmedRequests() >= event.getParticipantLimit()) {
+            int newlyConfirmed = 0;
+            for (List<Long> chunk : chunks) {
+                newlyConfirmed += requestRepository.updateStatusIfChanged(eventId, chunk, RequestStatus.CONFIRMED);
+            }
+            if (newlyConfirmed > 0 && eventRepository.incrementConfirmedRequests(eventId, newlyConfirmed) == 0) {
                 throw new ObjectConflictException("Максимальное количество участников достигнуо");
             }
-            for (ParticipationRequest participationRequest : participationRequestList) {
-                if (!participationRequest.getStatus().equals(RequestStatus.PENDING)) {
+        } else {
+            long pending = 0;
+            for (List<Long> chunk : chunks) {
+                long chunkPending = requestRepository.countByEventAndIdInAndStatus(eventId, chunk, RequestStatus.PENDING);
+                if (chunkPending != requestRepository.countByEventAndIdIn(eventId, chunk)) {
                     throw new ObjectValidationException("Изменение статуса возможно у заявок со статусом «ожидание»");
                 }
-                if (statusUpdateRequest.getStatus() == RequestStatus.CONFIRMED) {
-                    participationRequest.setStatus(RequestStatus.CONFIRMED);
-                    requestStatusUpdateResult.getConfirmedRequests().add(RequestMapper.requestToDto(participationRequest));
-                    event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-                } else {
-                    participationRequest.setStatus(RequestStatus.REJECTED);
-                    requestStatusUpdateResult.getRejectedRequests().add(RequestMapper.requestToDto(participationRequest));
+                pending += chunkPending;
+            }
+            int remaining = statusUpdateRequest.getStatus() == RequestStatus.CONFIRMED
+                    ? event.getParticipantLimit() - event.getConfirmedRequests() : 0;
+            if (statusUpdateRequest.getStatus() == RequestStatus.CONFIRMED && remaining <= 0 && pending > 0) {
+                throw new ObjectConflictException("Максимальное количество участников достигнуо");
+            }
+            int confirmed = 0;
+            int rejected = 0;
+            for (List<Long> chunk : chunks) {
+                if (remaining > 0) {
+                    int admitted = requestRepository.confirmPending(eventId, chunk, remaining);
+                    confirmed += admitted;
+                    remaining -= admitted;
                 }
+                rejected += requestRepository.updateStatus(eventId, chunk, RequestStatus.PENDING, RequestStatus.REJECTED);
+            }
+            if (confirmed + rejected != pending) {
+                throw new ObjectConflictException(String.format(
+                        "Заявки эвента с id = %d были изменены параллельно, повторите запрос", eventId));
+            }
+            if (confirmed > 0 && eventRepository.incrementConfirmedRequests(eventId, confirmed) == 0) {
+                throw new ObjectConflictException("Максимальное количество участников достигнуо");
             }
         }
-        requestRepository.saveAll(participationRequestList);
-        eventRepository.save(event);
-        return requestStatusUpdateResult;
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.EVENT, eventId));
+        for (List<Long> chunk : chunks) {
+            requestRepository.findAllByEventAndIdIn(eventId, chunk)
+                    .stream()
+                    .map(RequestMapper::requestToDto)
+                    .forEach(consumer);
+        }
+    }
+
+    private List<List<Long>> toChunks(Set<Long> requestIds) {
+        if (requestIds == null) {
+            return List.of();
+        }
+        List<Long> sortedIds = requestIds.stream().sorted().collect(Collectors.toList());
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < sortedIds.size(); from += statusUpdateBatchSize) {
+            chunks.add(sortedIds.subList(from, Math.min(from + statusUpdateBatchSize, sortedIds.size())));
+        }
+        return chunks;
     }
-}
\ No newline at end of file
+}
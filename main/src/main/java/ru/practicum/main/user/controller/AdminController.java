@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main.category.dto.CategoryDto;
@@ -22,6 +23,7 @@ import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.user.dto.NewUserRequest;
 import ru.practicum.main.user.dto.UserDto;
 import ru.practicum.main.user.service.UserService;
+import ru.practicum.main.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -65,7 +67,7 @@ public class AdminController {
     }
 
     @GetMapping("/events")
-    public List<EventFullDtoWithViews> getEventsByAdmin(@RequestParam(required = false) List<Long> users,
+    public ResponseEntity<List<EventFullDtoWithViews>> getEventsByAdmin(@RequestParam(required = false) List<Long> users,
                                                         @RequestParam(required = false) EventStatus status,
                                                         @RequestParam(required = false) List<Long> categories,
                                                         @RequestParam(required = false)
@@ -73,9 +75,14 @@ public class AdminController {
                                                         @RequestParam(required = false)
                                                @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                        @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                        @RequestParam(required = false) String cursor) {
         log.info("Получен запрос admin/events getEventsByAdmin");
-        return eventService.getEventsByAdmin(users, status, categories, rangeStart, rangeEnd, from, size);
+        if (cursor != null) {
+            return PageCursor.toResponse(eventService.getEventsByAdmin(users, status, categories, rangeStart, rangeEnd,
+                    PageCursor.decode(cursor), size));
+        }
+        return ResponseEntity.ok(eventService.getEventsByAdmin(users, status, categories, rangeStart, rangeEnd, from, size));
     }
 
     @GetMapping("/users")
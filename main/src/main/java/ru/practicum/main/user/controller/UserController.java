@@ -1,20 +1,28 @@
 package ru.practicum.main.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.main.event.dto.*;
 import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.service.RequestService;
+import ru.practicum.main.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +34,7 @@ public class UserController {
 
     private final EventService eventService;
     private final RequestService requestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/{userId}/events")
     @ResponseStatus(HttpStatus.CREATED)
@@ -37,12 +46,16 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/events")
-    public List<EventShort> getEventsByInitiator(@PathVariable @Positive Long userId,
+    public ResponseEntity<List<EventShort>> getEventsByInitiator(@PathVariable @Positive Long userId,
                                                  @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                 @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                 @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                 @RequestParam(required = false) String cursor) {
         log.info("Получен запрос users/{userId}/events getEventsByInitiator userId = {}, from = {}," +
-                "size = {}", userId, from, size);
-        return eventService.getEventsByInitiator(userId, from, size);
+                "size = {}, cursor = {}", userId, from, size, cursor);
+        if (cursor != null) {
+            return PageCursor.toResponse(eventService.getEventsByInitiator(userId, PageCursor.decode(cursor), size));
+        }
+        return ResponseEntity.ok(eventService.getEventsByInitiator(userId, from, size));
     }
 
     @GetMapping("/{userId}/events/{eventId}")
@@ -79,6 +92,26 @@ public class UserController {
         return requestService.updateRequestStatus(userId, eventId, statusUpdateRequest);
     }
 
+    @PatchMapping(value = "/{userId}/events/{eventId}/requests", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamRequestStatus(@PathVariable @Positive Long userId,
+                                                     @PathVariable @Positive Long eventId,
+                                                     @RequestBody @Valid EventRequestStatusUpdateRequest statusUpdateRequest) {
+        log.info("Получен запрос users/{userId}/events/{eventId}/requests streamRequestStatus с userId={}, eventId={}",
+                userId, eventId);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                requestService.updateRequestStatus(userId, eventId, statusUpdateRequest, request -> {
+                    try {
+                        generator.writeObject(request);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
     @PostMapping("/{userId}/requests")
     @ResponseStatus(HttpStatus.CREATED)
     public ParticipationRequestDto addRequest(@PathVariable @Positive Long userId,
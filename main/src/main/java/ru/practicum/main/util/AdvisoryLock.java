@@ -0,0 +1,46 @@
+package ru.practicum.main.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+@RequiredArgsConstructor
+public class AdvisoryLock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Выполняет задачу, только если её не выполняет другая реплика. Сессионная блокировка держится
+     * на отдельном соединении до конца задачи, сама задача работает в своих транзакциях.
+     */
+    public boolean runExclusively(String name, Runnable job) {
+        Boolean executed = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!call(connection, "SELECT pg_try_advisory_lock(hashtext(?))", name)) {
+                return false;
+            }
+            try {
+                job.run();
+            } finally {
+                call(connection, "SELECT pg_advisory_unlock(hashtext(?))", name);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(executed);
+    }
+
+    private static boolean call(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.main.util;
+
+import lombok.Data;
+
+@Data
+public class CacheFlushEvent {
+    private final String reason;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.main.util;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+@Getter
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    private final PageCursor nextCursor;
+
+    public CursorSlice(List<T> content, int size, PageCursor nextCursor) {
+        super(content, PageRequest.of(0, size), nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+}
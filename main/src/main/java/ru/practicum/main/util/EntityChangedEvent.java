@@ -0,0 +1,17 @@
+package ru.practicum.main.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.main.enumeration.EntityType;
+
+@Data
+@AllArgsConstructor
+public class EntityChangedEvent {
+    private final EntityType type;
+    private final Long id;
+    private final boolean remote;
+
+    public EntityChangedEvent(EntityType type, Long id) {
+        this(type, id, false);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.main.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@ConditionalOnProperty(value = "schema.index-verification.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class IndexVerifier {
+
+    private static final Pattern INDEX_PATTERN =
+            Pattern.compile("CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Resource schema;
+    private final boolean failOnMissing;
+
+    public IndexVerifier(NamedParameterJdbcTemplate jdbcTemplate,
+                         @Value("classpath:schema.sql") Resource schema,
+                         @Value("${schema.index-verification.fail-on-missing:false}") boolean failOnMissing) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        Set<String> declared = readDeclaredIndexes();
+        if (declared.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("names", declared);
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND indexname IN (:names)",
+                params, String.class));
+        List<String> missing = new ArrayList<>();
+        for (String name : declared) {
+            if (!existing.contains(name)) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            if (failOnMissing) {
+                throw new IllegalStateException(String.format("В базе отсутствуют индексы: %s", missing));
+            }
+            log.warn("В базе отсутствуют индексы: {}", missing);
+        }
+        List<String> unused = jdbcTemplate.queryForList(
+                "SELECT indexrelname FROM pg_stat_user_indexes " +
+                        "WHERE schemaname = current_schema() AND indexrelname IN (:names) AND idx_scan = 0 " +
+                        "ORDER BY indexrelname",
+                params, String.class);
+        if (!unused.isEmpty()) {
+            log.info("Индексы без использования с момента сброса статистики: {}", unused);
+        }
+        log.info("Проверка индексов завершена: объявлено {}, отсутствует {}, не используется {}",
+                declared.size(), missing.size(), unused.size());
+    }
+
+    private Set<String> readDeclaredIndexes() {
+        String sql;
+        try {
+            sql = new String(schema.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = INDEX_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            names.add(matcher.group(1).toLowerCase());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.main.util;
+
+public interface InvalidationBus {
+
+    void broadcast(EntityChangedEvent event);
+}
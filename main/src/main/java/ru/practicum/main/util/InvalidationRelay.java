@@ -0,0 +1,26 @@
+package ru.practicum.main.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidationRelay {
+
+    private final InvalidationBus invalidationBus;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        try {
+            invalidationBus.broadcast(event);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось разослать инвалидацию {} {}: {}", event.getType(), event.getId(), e.getMessage());
+        }
+    }
+}
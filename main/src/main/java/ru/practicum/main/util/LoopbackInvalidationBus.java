@@ -0,0 +1,22 @@
+package ru.practicum.main.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Возвращает изменения в тот же экземпляр как удалённые, чтобы проверить обработку инвалидаций без второй реплики.
+ */
+@Component
+@ConditionalOnProperty(value = "cache.invalidation.bus", havingValue = "loopback")
+@RequiredArgsConstructor
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void broadcast(EntityChangedEvent event) {
+        eventPublisher.publishEvent(new EntityChangedEvent(event.getType(), event.getId(), true));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.main.util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(value = "cache.invalidation.bus", havingValue = "none", matchIfMissing = true)
+public class NoopInvalidationBus implements InvalidationBus {
+
+    @Override
+    public void broadcast(EntityChangedEvent event) {
+    }
+}
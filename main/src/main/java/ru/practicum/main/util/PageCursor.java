@@ -0,0 +1,84 @@
+package ru.practicum.main.util;
+
+import lombok.Data;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.main.exception.ObjectValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@Data
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final String key;
+    private final long id;
+
+    public static PageCursor of(LocalDateTime key, Long id) {
+        return new PageCursor(key.toString(), id);
+    }
+
+    public static PageCursor of(Number key, Long id) {
+        return new PageCursor(key.toString(), id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor("", id);
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new PageCursor(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ObjectValidationException(String.format("Некорректный курсор: %s", token));
+        }
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(CursorSlice<T> slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor().encode());
+        }
+        return response.body(slice.getContent());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getDateKey() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ObjectValidationException(String.format("Некорректный курсор: %s", encode()));
+        }
+    }
+
+    public double getDoubleKey() {
+        try {
+            return Double.parseDouble(key);
+        } catch (NumberFormatException e) {
+            throw new ObjectValidationException(String.format("Некорректный курсор: %s", encode()));
+        }
+    }
+
+    public long getLongKey() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new ObjectValidationException(String.format("Некорректный курсор: %s", encode()));
+        }
+    }
+}
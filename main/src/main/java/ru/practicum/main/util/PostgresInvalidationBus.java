@@ -0,0 +1,135 @@
+package ru.practicum.main.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.main.enumeration.EntityType;
+
+import javax.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(value = "cache.invalidation.bus", havingValue = "postgres")
+@Slf4j
+public class PostgresInvalidationBus implements InvalidationBus, DisposableBean {
+
+    private static final String SEPARATOR = ":";
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public PostgresInvalidationBus(@Value("${spring.datasource.url}") String url,
+                                   @Value("${spring.datasource.username}") String username,
+                                   @Value("${spring.datasource.password}") String password,
+                                   JdbcTemplate jdbcTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${cache.invalidation.channel:entity_changes}") String channel,
+                                   @Value("${cache.invalidation.poll-timeout-ms:1000}") int pollTimeoutMs,
+                                   @Value("${cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException(String.format("Некорректное имя канала: %s", channel));
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.listener = new Thread(this::listen, "invalidation-listener");
+        this.listener.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        listener.start();
+    }
+
+    @Override
+    public void broadcast(EntityChangedEvent event) {
+        String payload = nodeId + SEPARATOR + event.getType() + SEPARATOR + (event.getId() == null ? "" : event.getId());
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(pollTimeoutMs * 2L);
+    }
+
+    /**
+     * LISTEN держит соединение всё время работы приложения, поэтому оно открывается в обход пула.
+     */
+    private void listen() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Подписка на канал инвалидации {} установлена", channel);
+                if (reconnected) {
+                    eventPublisher.publishEvent(new CacheFlushEvent("переподключение к каналу " + channel));
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение с каналом инвалидации {} потеряно, переподключение через {} мс",
+                        channel, reconnectDelayMs, e);
+                reconnected = true;
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split(SEPARATOR, -1);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            EntityType type = EntityType.valueOf(parts[1]);
+            Long id = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+            eventPublisher.publishEvent(new EntityChangedEvent(type, id, true));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректное сообщение инвалидации: {}", payload);
+        }
+    }
+}
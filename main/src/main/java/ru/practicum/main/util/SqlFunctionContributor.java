@@ -0,0 +1,28 @@
+package ru.practicum.main.util;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SqlFunctionContributor implements MetadataBuilderContributor {
+
+    private static final String EVENT_SEARCH_VECTOR = "(setweight(to_tsvector('russian', ?1), 'A') || " +
+            "setweight(to_tsvector('russian', ?2), 'B'))";
+    private static final String EVENT_SEARCH_QUERY = "websearch_to_tsquery('russian', ?3)";
+    private static final String LOCATION_DISTANCE_KM = "(6371.0088 * 2 * asin(sqrt(" +
+            "power(sin(radians(?3 - ?1) / 2), 2) + " +
+            "cos(radians(?1)) * cos(radians(?3)) * power(sin(radians(?4 - ?2) / 2), 2))))";
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction("event_search_matches", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(" + EVENT_SEARCH_VECTOR + " @@ " + EVENT_SEARCH_QUERY + ")"));
+        metadataBuilder.applySqlFunction("event_search_rank", new SQLFunctionTemplate(StandardBasicTypes.FLOAT,
+                "ts_rank(" + EVENT_SEARCH_VECTOR + ", " + EVENT_SEARCH_QUERY + ")"));
+        metadataBuilder.applySqlFunction("location_in_box", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(point(?2, ?1) <@ box(point(?4, ?3), point(?6, ?5)))"));
+        metadataBuilder.applySqlFunction("location_distance_km", new SQLFunctionTemplate(StandardBasicTypes.DOUBLE,
+                LOCATION_DISTANCE_KM));
+    }
+}
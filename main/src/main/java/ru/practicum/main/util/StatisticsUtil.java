@@ -1,48 +1,144 @@
 package ru.practicum.main.util;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.practicum.main.exception.ObjectValidationException;
 import ru.practicum.statisticclient.StatisticClient;
 import ru.practicum.statisticdto.ViewStats;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
-@RequiredArgsConstructor
 @Component
 public class StatisticsUtil {
 
     private final StatisticClient statisticClient;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final Map<StatisticsRequest, CompletableFuture<List<ViewStats>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final LoadingCache<ViewKey, Integer> viewCounts;
+
+    public StatisticsUtil(StatisticClient statisticClient,
+                          @Value("${statistic.views-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${statistic.views-cache.ttl-seconds:10}") long ttlSeconds,
+                          @Value("${statistic.views-cache.refresh-after-seconds:0}") long refreshAfterSeconds) {
+        this.statisticClient = statisticClient;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds));
+        if (refreshAfterSeconds > 0 && refreshAfterSeconds < ttlSeconds) {
+            builder.refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds));
+        }
+        this.viewCounts = builder.build(new CacheLoader<ViewKey, Integer>() {
+            @Override
+            public Integer load(ViewKey key) {
+                return loadViewCounts(Set.of(key)).get(key);
+            }
+
+            @Override
+            public Map<ViewKey, Integer> loadAll(Iterable<? extends ViewKey> keys) {
+                Set<ViewKey> uniqueKeys = new HashSet<>();
+                keys.forEach(uniqueKeys::add);
+                return loadViewCounts(uniqueKeys);
+            }
+        });
+    }
 
     public int getAmountOfViews(LocalDateTime eventPublishedOn, String[] uri) {
-        return statisticClient.getStatistic(
-                        eventPublishedOn.format(formatter),
-                        LocalDateTime.now().format(formatter),
-                        true,
-                        uri)
-                .size();
+        return viewCounts.getAll(toKeys(eventPublishedOn, uri)).values().stream()
+                .mapToInt(Integer::intValue)
+                .sum();
     }
 
     public Map<Long, Integer> getMapOfViews(LocalDateTime eventPublishedOn, String[] uri) {
-        List<ViewStats> viewStatsList = statisticClient.getStatistic(
-                eventPublishedOn.format(formatter),
-                LocalDateTime.now().format(formatter),
-                true,
-                uri);
+        return toIdMap(viewCounts.getAll(toKeys(eventPublishedOn, uri)));
+    }
+
+    public Map<Long, Integer> loadMapOfViews(LocalDateTime eventPublishedOn, String[] uri) {
+        return toIdMap(loadViewCounts(new HashSet<>(toKeys(eventPublishedOn, uri))));
+    }
+
+    private Map<Long, Integer> toIdMap(Map<ViewKey, Integer> counts) {
         Map<Long, Integer> idToCountMap = new HashMap<>();
-        for (ViewStats viewStats : viewStatsList) {
-            String viewStatsUri = viewStats.getUri();
-            Long id = extractIdFromUri(viewStatsUri);
-            idToCountMap.put(id, idToCountMap.getOrDefault(id, 0) + 1);
+        for (Map.Entry<ViewKey, Integer> count : counts.entrySet()) {
+            if (count.getValue() > 0) {
+                Long id = extractIdFromUri(count.getKey().getUri());
+                idToCountMap.put(id, idToCountMap.getOrDefault(id, 0) + count.getValue());
+            }
         }
         return idToCountMap;
     }
 
+    private static List<ViewKey> toKeys(LocalDateTime start, String[] uris) {
+        List<ViewKey> keys = new ArrayList<>(uris.length);
+        for (String uri : uris) {
+            keys.add(new ViewKey(uri, start));
+        }
+        return keys;
+    }
+
+    private Map<ViewKey, Integer> loadViewCounts(Set<? extends ViewKey> keys) {
+        Map<LocalDateTime, Map<String, Integer>> viewsByStart = new HashMap<>();
+        for (ViewKey key : keys) {
+            viewsByStart.computeIfAbsent(key.getStart(), start -> new HashMap<>()).put(key.getUri(), 0);
+        }
+        Map<ViewKey, Integer> counts = new HashMap<>();
+        viewsByStart.forEach((start, views) -> {
+            for (ViewStats viewStats : getStatistic(start, views.keySet().toArray(new String[0]), true)) {
+                views.computeIfPresent(viewStats.getUri(), (uri, count) -> count + 1);
+            }
+            views.forEach((uri, count) -> counts.put(new ViewKey(uri, start), count));
+        });
+        return counts;
+    }
+
+    private List<ViewStats> getStatistic(LocalDateTime start, String[] uri, boolean unique) {
+        StatisticsRequest request = new StatisticsRequest(start.format(formatter),
+                uri == null ? Set.of() : Set.copyOf(Arrays.asList(uri)), unique);
+        CompletableFuture<List<ViewStats>> future = new CompletableFuture<>();
+        CompletableFuture<List<ViewStats>> inFlight = inFlightRequests.putIfAbsent(request, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            future.complete(statisticClient.getStatistic(
+                    request.getStart(),
+                    LocalDateTime.now().format(formatter),
+                    unique,
+                    uri));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlightRequests.remove(request, future);
+        }
+        return await(future);
+    }
+
+    private List<ViewStats> await(CompletableFuture<List<ViewStats>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private Long extractIdFromUri(String uri) {
         int lastSlashIndex = uri.lastIndexOf('/');
         if (lastSlashIndex != -1 && lastSlashIndex < uri.length() - 1) {
@@ -55,4 +151,17 @@ public class StatisticsUtil {
         }
         return -1L;
     }
+
+    @Data
+    private static class StatisticsRequest {
+        private final String start;
+        private final Set<String> uris;
+        private final boolean unique;
+    }
+
+    @Data
+    private static class ViewKey {
+        private final String uri;
+        private final LocalDateTime start;
+    }
 }
@@ -18,6 +18,8 @@ CREATE TABLE IF NOT EXISTS locations
     lon         FLOAT NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS locations_point_idx ON locations USING GIST (point(lon, lat));
+
 CREATE TABLE IF NOT EXISTS compilations
 (
     compilation_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -44,6 +46,30 @@ CREATE TABLE IF NOT EXISTS events
     title              VARCHAR(120)  NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS events_published_date_idx ON events (event_date DESC, event_id DESC)
+    WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS events_published_category_date_idx ON events (category_id, event_date DESC, event_id DESC)
+    WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS events_published_id_idx ON events (event_id) INCLUDE (published_on)
+    WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS events_state_date_idx ON events (state, event_date);
+
+CREATE INDEX IF NOT EXISTS events_initiator_idx ON events (initiator_id, event_id);
+
+CREATE INDEX IF NOT EXISTS events_category_idx ON events (category_id);
+
+CREATE INDEX IF NOT EXISTS events_location_idx ON events (location_id);
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS events_views_idx ON events (state, views DESC, event_id DESC);
+
+CREATE INDEX IF NOT EXISTS events_search_idx ON events USING GIN
+    ((setweight(to_tsvector('russian', annotation), 'A') || setweight(to_tsvector('russian', description), 'B')));
+
 CREATE TABLE IF NOT EXISTS requests
 (
     request_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -54,6 +80,8 @@ CREATE TABLE IF NOT EXISTS requests
     UNIQUE (event_id, requester_id)
 );
 
+CREATE INDEX IF NOT EXISTS requests_requester_idx ON requests (requester_id, request_id);
+
 CREATE TABLE IF NOT EXISTS compilation_event
 (
     compilation_id BIGINT NOT NULL,
@@ -63,6 +91,10 @@ CREATE TABLE IF NOT EXISTS compilation_event
     FOREIGN KEY (event_id) REFERENCES events (event_id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS compilation_event_event_idx ON compilation_event (event_id);
+
+CREATE INDEX IF NOT EXISTS compilations_pinned_idx ON compilations (pinned, compilation_id);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     comment_id     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -71,4 +103,30 @@ CREATE TABLE IF NOT EXISTS comments
     text           VARCHAR(5000) NOT NULL,
     created_on     TIMESTAMP    NOT NULL,
     last_update    TIMESTAMP DEFAULT NULL
-);
\ No newline at end of file
+);
+
+DO 'BEGIN
+    IF to_regclass(''comments_event_created_idx'') IS NOT NULL THEN
+        DROP INDEX IF EXISTS comments_event_idx;
+        ALTER INDEX comments_event_created_idx RENAME TO comments_event_idx;
+    ELSIF EXISTS(SELECT 1 FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ''comments_event_idx''
+            AND indexdef NOT LIKE ''%comment_id%'') THEN
+        DROP INDEX comments_event_idx;
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS comments_event_idx ON comments (event_id, created_on DESC, comment_id DESC);
+
+CREATE INDEX IF NOT EXISTS comments_commentator_idx ON comments (commentator_id);
+
+DO 'BEGIN
+    IF NOT EXISTS(SELECT 1 FROM information_schema.columns
+                  WHERE table_schema = current_schema() AND table_name = ''events'' AND column_name = ''comment_count'') THEN
+        ALTER TABLE events ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0;
+        UPDATE events e SET comment_count = c.total
+        FROM (SELECT event_id, COUNT(*) AS total FROM comments GROUP BY event_id) c
+        WHERE c.event_id = e.event_id;
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS events_comments_idx ON events (state, comment_count DESC, event_id DESC);
@@ -0,0 +1,123 @@
+package ru.practicum.main.event.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.enumeration.EventStatus;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.location.model.Location;
+import ru.practicum.main.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EventRepositoryEntityGraphTest {
+
+    private static final int EVENTS = 5;
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Event> events = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = new Event();
+            event.setAnnotation("Аннотация события для проверки графов загрузки");
+            event.setDescription("Описание события для проверки графов загрузки");
+            event.setTitle("Событие " + i);
+            event.setCategory(testEntityManager.persist(new Category(null, "graph-" + i + "-" + suffix)));
+            event.setInitiator(testEntityManager.persist(new User(null, "user" + i, "graph" + i + "-" + suffix + "@test.ru")));
+            event.setLocation(testEntityManager.persist(new Location(null, 55.75f + i, 37.62f + i)));
+            event.setConfirmedRequests(0);
+            event.setCreatedOn(LocalDateTime.now());
+            event.setEventDate(LocalDateTime.now().plusDays(7));
+            event.setPublishedOn(LocalDateTime.now());
+            event.setPaid(false);
+            event.setParticipantLimit(0);
+            event.setRequestModeration(false);
+            event.setState(EventStatus.PUBLISHED);
+            events.add(testEntityManager.persist(event));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllBySpecificationLoadsAssociationsInOneStatement() {
+        Set<Long> initiators = events.stream().map(event -> event.getInitiator().getId()).collect(Collectors.toSet());
+        Specification<Event> spec = (root, query, cb) -> root.get("initiator").get("id").in(initiators);
+
+        List<Event> page = eventRepository.findAll(spec, PageRequest.of(0, EVENTS * 2, Sort.by("id"))).getContent();
+
+        assertEquals(EVENTS, page.size());
+        assertAssociationsLoadedWith(page, 1);
+    }
+
+    @Test
+    void findEventsLoadsAssociationsInOneStatement() {
+        Set<Long> ids = events.stream().map(Event::getId).collect(Collectors.toSet());
+        Specification<Event> spec = (root, query, cb) -> root.get("id").in(ids);
+
+        List<Event> page = eventRepository.findEvents(spec, PageRequest.of(0, EVENTS, Sort.by("id")));
+
+        assertEquals(EVENTS, page.size());
+        assertAssociationsLoadedWith(page, 1);
+    }
+
+    @Test
+    void findAllByIdInLoadsAssociationsInOneStatement() {
+        Set<Long> ids = events.stream().map(Event::getId).collect(Collectors.toSet());
+
+        List<Event> found = eventRepository.findAllByIdIn(ids);
+
+        assertEquals(EVENTS, found.size());
+        assertAssociationsLoadedWith(found, 1);
+    }
+
+    @Test
+    void findSingleEventLoadsAssociationsInOneStatement() {
+        Event event = events.get(0);
+
+        assertAssociationsLoadedWith(List.of(eventRepository.findByIdAndInitiatorId(event.getId(),
+                event.getInitiator().getId())), 1);
+        statistics.clear();
+        assertAssociationsLoadedWith(List.of(eventRepository.findByIdAndState(event.getId(), EventStatus.PUBLISHED)), 1);
+    }
+
+    private void assertAssociationsLoadedWith(List<Event> loaded, long statements) {
+        for (Event event : loaded) {
+            event.getCategory().getName();
+            event.getInitiator().getName();
+            event.getLocation().getLat();
+        }
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.main.request.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.enumeration.EventStatus;
+import ru.practicum.main.enumeration.RequestStatus;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.exception.ObjectConflictException;
+import ru.practicum.main.location.model.Location;
+import ru.practicum.main.location.repository.LocationRepository;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class RequestAdmissionConcurrencyTest {
+
+    private static final int PARTICIPANT_LIMIT = 10;
+    private static final int REQUESTERS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User initiator = userRepository.save(new User(null, "initiator", "initiator-" + suffix + "@test.ru"));
+        userIds.add(initiator.getId());
+        for (int i = 0; i < REQUESTERS; i++) {
+            userIds.add(userRepository.save(new User(null, "user" + i, "user" + i + "-" + suffix + "@test.ru")).getId());
+        }
+        Event newEvent = new Event();
+        newEvent.setAnnotation("Аннотация нагрузочного теста заявок");
+        newEvent.setDescription("Описание нагрузочного теста заявок");
+        newEvent.setTitle("Нагрузочный тест");
+        newEvent.setCategory(categoryRepository.save(new Category(null, "stress-" + suffix)));
+        newEvent.setLocation(locationRepository.save(new Location(null, 55.75f, 37.62f)));
+        newEvent.setInitiator(initiator);
+        newEvent.setConfirmedRequests(0);
+        newEvent.setCreatedOn(LocalDateTime.now());
+        newEvent.setEventDate(LocalDateTime.now().plusDays(7));
+        newEvent.setPublishedOn(LocalDateTime.now());
+        newEvent.setPaid(false);
+        newEvent.setParticipantLimit(PARTICIPANT_LIMIT);
+        newEvent.setRequestModeration(false);
+        newEvent.setState(EventStatus.PUBLISHED);
+        event = eventRepository.save(newEvent);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM requests WHERE event_id = ?", event.getId());
+        eventRepository.deleteById(event.getId());
+        locationRepository.deleteById(event.getLocation().getId());
+        categoryRepository.deleteById(event.getCategory().getId());
+        userIds.forEach(userRepository::deleteById);
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedParticipantLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long userId : userIds.subList(1, userIds.size())) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requestService.addRequest(userId, event.getId());
+                    confirmed.incrementAndGet();
+                } catch (ObjectConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(PARTICIPANT_LIMIT, confirmed.get());
+        assertEquals(REQUESTERS - PARTICIPANT_LIMIT, rejected.get());
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        assertEquals(PARTICIPANT_LIMIT, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM requests WHERE event_id = ? AND status = ?",
+                Integer.class, event.getId(), RequestStatus.CONFIRMED.name()));
+    }
+}
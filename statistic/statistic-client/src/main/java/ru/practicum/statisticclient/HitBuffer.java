@@ -0,0 +1,116 @@
+package ru.practicum.statisticclient;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.statisticdto.HitDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HitBuffer {
+
+    private final BlockingQueue<HitDto> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final HitOverflowPolicy overflowPolicy;
+    private final Consumer<List<HitDto>> sender;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicLong droppedHits = new AtomicLong();
+
+    public HitBuffer(int capacity, int batchSize, long flushIntervalMs, long offerTimeoutMs,
+                     HitOverflowPolicy overflowPolicy, Consumer<List<HitDto>> sender) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+        this.sender = sender;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistic-hit-buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(HitDto hitDto) {
+        if (!enqueue(hitDto)) {
+            long dropped = droppedHits.incrementAndGet();
+            if (dropped % batchSize == 1) {
+                log.warn("Очередь хитов переполнена, отброшено хитов: {}", dropped);
+            }
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flushSafely);
+        }
+    }
+
+    public long getDroppedHits() {
+        return droppedHits.get();
+    }
+
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(offerTimeoutMs + 1000, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private boolean enqueue(HitDto hitDto) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    return queue.offer(hitDto, offerTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case DROP_OLDEST:
+                while (!queue.offer(hitDto)) {
+                    if (queue.poll() != null) {
+                        droppedHits.incrementAndGet();
+                    }
+                }
+                return true;
+            default:
+                return queue.offer(hitDto);
+        }
+    }
+
+    private void flushSafely() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить хиты в сервис статистики: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        List<HitDto> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                sender.accept(batch);
+            } catch (RuntimeException e) {
+                long dropped = droppedHits.addAndGet(batch.size());
+                log.warn("Пакет из {} хитов не принят сервисом статистики, всего отброшено хитов: {}: {}",
+                        batch.size(), dropped, e.getMessage());
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.statisticclient;
+
+public enum HitOverflowPolicy {
+    BLOCK,
+    DROP_NEWEST,
+    DROP_OLDEST
+}
@@ -1,13 +1,17 @@
 package ru.practicum.statisticclient;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.statisticdto.HitBatchResult;
 import ru.practicum.statisticdto.HitDto;
 import ru.practicum.statisticdto.ViewStats;
 
@@ -15,21 +19,38 @@ import java.util.List;
 import java.util.Map;
 
 @Service
-public class StatisticClient extends BaseClient {
+@Slf4j
+public class StatisticClient extends BaseClient implements DisposableBean {
 
     private static final String API_PREFIX_HIT = "/hit";
+    private static final String API_PREFIX_HITS = "/hits";
     private static final String API_PREFIX_STATS = "/stats";
 
-    public StatisticClient(@Value("${statistic-service.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final HitBuffer hitBuffer;
+
+    public StatisticClient(@Value("${statistic-service.url}") String serverUrl, RestTemplateBuilder builder,
+                           @Value("${statistic-client.hits.async:true}") boolean async,
+                           @Value("${statistic-client.hits.queue-capacity:10000}") int queueCapacity,
+                           @Value("${statistic-client.hits.batch-size:100}") int batchSize,
+                           @Value("${statistic-client.hits.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${statistic-client.hits.offer-timeout-ms:50}") long offerTimeoutMs,
+                           @Value("${statistic-client.hits.overflow-policy:DROP_OLDEST}") HitOverflowPolicy overflowPolicy) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                         .build()
         );
+        this.hitBuffer = async ?
+                new HitBuffer(queueCapacity, batchSize, flushIntervalMs, offerTimeoutMs, overflowPolicy, this::sendHits) :
+                null;
     }
 
     public List<ViewStats> getStatistic(String start, String end, Boolean unique, String[] uris) {
+        return getStatistic(start, end, String.valueOf(unique), uris);
+    }
+
+    public List<ViewStats> getStatistic(String start, String end, String unique, String[] uris) {
         Map<String, Object> parameters = Map.of(
                 "start", start,
                 "end", end,
@@ -43,6 +64,29 @@ public class StatisticClient extends BaseClient {
     }
 
     public void createHit(HitDto hitDto) {
-        post(API_PREFIX_HIT, hitDto);
+        if (hitBuffer != null) {
+            hitBuffer.add(hitDto);
+        } else {
+            post(API_PREFIX_HIT, hitDto);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (hitBuffer != null) {
+            hitBuffer.close();
+        }
+    }
+
+    private void sendHits(List<HitDto> hits) {
+        ResponseEntity<HitBatchResult> response = rest.exchange(API_PREFIX_HITS, HttpMethod.POST,
+                new HttpEntity<>(hits, defaultHeaders()), HitBatchResult.class);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException(String.format("Сервис статистики вернул статус %s", response.getStatusCode()));
+        }
+        HitBatchResult result = response.getBody();
+        if (result != null && result.getRejected() != null && result.getRejected() > 0) {
+            log.warn("Сервис статистики отклонил некорректных хитов: {} из {}", result.getRejected(), hits.size());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package ru.practicum.statisticdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HitBatchResult {
+    private Long accepted;
+    private Long rejected;
+}
@@ -1,32 +1,88 @@
 package ru.practicum.statisticservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.statisticdto.HitBatchResult;
 import ru.practicum.statisticdto.HitDto;
 import ru.practicum.statisticdto.ViewStats;
+import ru.practicum.statisticservice.exception.ObjectValidationException;
+import ru.practicum.statisticservice.mapper.HitMapper;
+import ru.practicum.statisticservice.model.UniqueMode;
 import ru.practicum.statisticservice.service.StatisticService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequiredArgsConstructor
 @Slf4j
 public class StatisticController {
     private final StatisticService statisticService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    @Value("${statistic.hits.batch-size:500}")
+    private int batchSize;
 
     @GetMapping("/stats")
     public List<ViewStats> getStatistic(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
                                         @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
-                                        @RequestParam(defaultValue = "false") Boolean unique,
+                                        @RequestParam(defaultValue = "false") String unique,
                                         @RequestParam(required = false) String[] uris) {
         log.info("Запрос /stats - getStatistic с параметрами: start = {}, end = {},unique = {},uris = {}",
                 start, end, unique, uris);
-        return statisticService.getStatistic(start, end, unique, uris);
+        return statisticService.getStatistic(start, end, UniqueMode.from(unique), uris);
+    }
+
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamStatistic(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+                                                 @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+                                                 @RequestParam(defaultValue = "false") String unique,
+                                                 @RequestParam(required = false) String[] uris) {
+        log.info("Запрос /stats - streamStatistic с параметрами: start = {}, end = {},unique = {},uris = {}",
+                start, end, unique, uris);
+        if (start.isAfter(end)) {
+            throw new ObjectValidationException("Начало не может быть позже конца");
+        }
+        UniqueMode uniqueMode = UniqueMode.from(unique);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                AtomicBoolean first = new AtomicBoolean(true);
+                statisticService.streamStatistic(start, end, uniqueMode, uris, viewStats -> {
+                    try {
+                        generator.writeObject(viewStats);
+                        generator.writeRaw('\n');
+                        if (first.getAndSet(false)) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
     }
 
     @PostMapping("/hit")
@@ -35,4 +91,93 @@ public class StatisticController {
         log.info("Запрос /hit - createHit с Hit: {}", hitDto);
         return statisticService.createHit(hitDto);
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/hits", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResult createHits(@RequestBody List<JsonNode> nodes) {
+        log.info("Запрос /hits - createHits с количеством хитов: {}", nodes.size());
+        List<HitDto> valid = new ArrayList<>(nodes.size());
+        for (JsonNode node : nodes) {
+            HitDto hitDto;
+            try {
+                hitDto = objectMapper.treeToValue(node, HitDto.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Некорректный элемент пакета пропущен: {}", node);
+                continue;
+            }
+            if (isValidHit(hitDto)) {
+                valid.add(hitDto);
+            }
+        }
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            statisticService.createHits(valid.subList(from, Math.min(from + batchSize, valid.size())));
+        }
+        return result(valid.size(), nodes.size() - valid.size());
+    }
+
+    @PostMapping(value = "/hits", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResult createHitsStream(HttpServletRequest request) throws IOException {
+        log.info("Запрос /hits - createHitsStream");
+        long accepted = 0;
+        long rejected = 0;
+        List<HitDto> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                HitDto hitDto;
+                try {
+                    hitDto = objectMapper.readValue(line, HitDto.class);
+                } catch (JsonProcessingException e) {
+                    log.warn("Некорректная строка NDJSON пропущена: {}", line);
+                    rejected++;
+                    continue;
+                }
+                if (!isValidHit(hitDto)) {
+                    rejected++;
+                    continue;
+                }
+                batch.add(hitDto);
+                accepted++;
+                if (batch.size() == batchSize) {
+                    statisticService.createHits(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            statisticService.createHits(batch);
+        }
+        return result(accepted, rejected);
+    }
+
+    private boolean isValidHit(HitDto hitDto) {
+        if (hitDto == null) {
+            log.warn("Пустой хит пропущен");
+            return false;
+        }
+        Set<ConstraintViolation<HitDto>> violations = validator.validate(hitDto);
+        if (!violations.isEmpty()) {
+            log.warn("Некорректный хит {} пропущен: {}", hitDto, violations);
+            return false;
+        }
+        try {
+            HitMapper.hitFromDto(hitDto);
+        } catch (ObjectValidationException | DateTimeParseException e) {
+            log.warn("Некорректный хит {} пропущен: {}", hitDto, e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static HitBatchResult result(long accepted, long rejected) {
+        if (rejected > 0) {
+            log.warn("Запрос /hits - отклонено некорректных хитов: {}, принято: {}", rejected, accepted);
+        }
+        return new HitBatchResult(accepted, rejected);
+    }
+}
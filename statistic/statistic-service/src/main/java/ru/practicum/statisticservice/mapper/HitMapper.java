@@ -3,20 +3,26 @@ package ru.practicum.statisticservice.mapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.statisticdto.HitDto;
+import ru.practicum.statisticservice.exception.ObjectValidationException;
 import ru.practicum.statisticservice.model.Hit;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class HitMapper {
 
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+
     public static Hit hitFromDto(HitDto hitDto) {
         Hit hit = new Hit();
         hit.setApp(hitDto.getApp());
-        hit.setIp(hitDto.getIp());
+        hit.setIp(normalizeIp(hitDto.getIp()));
         hit.setCreated(LocalDateTime.parse(hitDto.getTimestamp(), formatter));
         hit.setUri(hitDto.getUri());
         return hit;
@@ -31,4 +37,27 @@ public final class HitMapper {
                 hit.getCreated().format(formatter)
         );
     }
-}
\ No newline at end of file
+
+    public static String normalizeIp(String ip) {
+        String value = ip.trim();
+        if (IPV4.matcher(value).matches()) {
+            StringBuilder normalized = new StringBuilder();
+            for (String octet : value.split("\\.")) {
+                int number = Integer.parseInt(octet);
+                if (number > 255) {
+                    throw new ObjectValidationException("Некорректный IP-адрес: " + ip);
+                }
+                normalized.append(normalized.length() > 0 ? "." : "").append(number);
+            }
+            return normalized.toString();
+        }
+        if (value.indexOf(':') >= 0 && value.indexOf('%') < 0) {
+            try {
+                return InetAddress.getByName("[" + value + "]").getHostAddress();
+            } catch (UnknownHostException e) {
+                throw new ObjectValidationException("Некорректный IP-адрес: " + ip);
+            }
+        }
+        throw new ObjectValidationException("Некорректный IP-адрес: " + ip);
+    }
+}
@@ -4,21 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
 import java.time.LocalDateTime;
 
-@Entity
-@Table(name = "hits")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Hit {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "hit_id")
     private Long id;
+    private Integer appId;
+    private Integer uriId;
     private String app;
     private String uri;
     private String ip;
     private LocalDateTime created;
-}
\ No newline at end of file
+}
@@ -0,0 +1,6 @@
+package ru.practicum.statisticservice.model;
+
+public enum PartitionRetentionMode {
+    DETACH,
+    DROP
+}
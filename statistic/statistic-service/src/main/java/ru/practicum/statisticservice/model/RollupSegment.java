@@ -0,0 +1,18 @@
+package ru.practicum.statisticservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class RollupSegment {
+    private RollupGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+}
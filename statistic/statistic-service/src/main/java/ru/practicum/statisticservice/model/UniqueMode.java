@@ -0,0 +1,23 @@
+package ru.practicum.statisticservice.model;
+
+import ru.practicum.statisticservice.exception.ObjectValidationException;
+
+public enum UniqueMode {
+    NONE,
+    EXACT,
+    APPROX;
+
+    public static UniqueMode from(String value) {
+        switch (value.toLowerCase()) {
+            case "false":
+                return NONE;
+            case "true":
+                return EXACT;
+            case "approx":
+                return APPROX;
+            default:
+                throw new ObjectValidationException(
+                        String.format("Параметр unique может принимать значения true, false или approx, получено: %s", value));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.statisticservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@RequiredArgsConstructor
+public class DictionaryRepository {
+
+    private static final String INTERN_APPS = "INSERT INTO apps (name) " +
+            "SELECT value FROM unnest(ARRAY[:values]) AS value ORDER BY value " +
+            "ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name RETURNING app_id AS id, name AS value";
+    private static final String INTERN_URIS = "INSERT INTO uris (uri) " +
+            "SELECT value FROM unnest(ARRAY[:values]) AS value ORDER BY value " +
+            "ON CONFLICT (uri) DO UPDATE SET uri = EXCLUDED.uri RETURNING uri_id AS id, uri AS value";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, Integer> appIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> uriIds = new ConcurrentHashMap<>();
+
+    public Map<String, Integer> getAppIds(Collection<String> apps) {
+        return intern(INTERN_APPS, apps, appIds);
+    }
+
+    public Map<String, Integer> getUriIds(Collection<String> uris) {
+        return intern(INTERN_URIS, uris, uriIds);
+    }
+
+    public List<Integer> findUriIds(String[] uris) {
+        List<Integer> ids = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String uri : uris) {
+            Integer id = uriIds.get(uri);
+            if (id != null) {
+                ids.add(id);
+            } else {
+                missing.add(uri);
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query("SELECT uri_id, uri FROM uris WHERE uri IN (:uris)",
+                    new MapSqlParameterSource("uris", missing), (RowCallbackHandler) rs -> {
+                        uriIds.putIfAbsent(rs.getString("uri"), rs.getInt("uri_id"));
+                        ids.add(rs.getInt("uri_id"));
+                    });
+        }
+        return ids;
+    }
+
+    /**
+     * Новые значения вставляются в транзакции вызывающего кода одним запросом в отсортированном порядке,
+     * а в кэш попадают только после её фиксации, чтобы откат не оставил в кэше несуществующий id.
+     */
+    private Map<String, Integer> intern(String sql, Collection<String> values, Map<String, Integer> cache) {
+        Map<String, Integer> ids = new HashMap<>();
+        TreeSet<String> missing = new TreeSet<>();
+        for (String value : values) {
+            Integer id = cache.get(value);
+            if (id != null) {
+                ids.put(value, id);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+        Map<String, Integer> interned = new HashMap<>();
+        jdbcTemplate.query(sql, new MapSqlParameterSource("values", new ArrayList<>(missing)),
+                (RowCallbackHandler) rs -> interned.put(rs.getString("value"), rs.getInt("id")));
+        if (interned.size() != missing.size()) {
+            throw new IllegalStateException("Не удалось сохранить значения справочника: " + missing);
+        }
+        ids.putAll(interned);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.putAll(interned);
+                }
+            });
+        } else {
+            cache.putAll(interned);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.statisticservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('hits')", String.class);
+        return kinds.contains("p");
+    }
+
+    public void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS hits_default PARTITION OF hits DEFAULT");
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('hits')", String.class);
+    }
+
+    public void createPartition(String name, LocalDate from, LocalDate to) {
+        Timestamp fromTimestamp = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTimestamp = Timestamp.valueOf(to.atStartOfDay());
+        jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE hits INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", name));
+        jdbcTemplate.update(String.format("WITH moved AS (DELETE FROM hits_default WHERE created >= ? AND created < ? " +
+                "RETURNING hit_id, app_id, uri_id, ip, created) " +
+                "INSERT INTO %s (hit_id, app_id, uri_id, ip, created) SELECT * FROM moved", name), fromTimestamp, toTimestamp);
+        jdbcTemplate.execute(String.format("ALTER TABLE hits ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                name, from, to));
+    }
+
+    public int deleteFromDefaultBefore(LocalDate cutoff) {
+        return jdbcTemplate.update("DELETE FROM hits_default WHERE created < ?", Timestamp.valueOf(cutoff.atStartOfDay()));
+    }
+
+    public void detachPartition(String name) {
+        jdbcTemplate.execute(String.format("ALTER TABLE hits DETACH PARTITION %s", name));
+    }
+
+    public void dropTable(String name) {
+        jdbcTemplate.execute(String.format("DROP TABLE IF EXISTS %s", name));
+    }
+}
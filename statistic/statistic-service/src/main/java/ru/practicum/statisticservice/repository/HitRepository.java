@@ -0,0 +1,79 @@
+package ru.practicum.statisticservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.statisticdto.ViewStats;
+import ru.practicum.statisticservice.mapper.HitMapper;
+import ru.practicum.statisticservice.model.Hit;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRepository {
+
+    private static final String INSERT_HIT = "INSERT INTO hits (app_id, uri_id, ip, created) " +
+            "VALUES (:appId, :uriId, CAST(:ip AS INET), :created)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Hit save(Hit hit) {
+        hit.setId(jdbcTemplate.queryForObject(INSERT_HIT + " RETURNING hit_id", toParameters(hit), Long.class));
+        return hit;
+    }
+
+    public void saveAll(List<Hit> hits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, hits.stream()
+                .map(HitRepository::toParameters)
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public void findUniqueViewStats(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, Integer limit,
+                                    Consumer<ViewStats> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+        String uriFilter = "";
+        if (uriIds != null) {
+            parameters.addValue("uriIds", uriIds);
+            uriFilter = " AND uri_id IN (:uriIds)";
+        }
+        String limitClause = "";
+        if (limit != null) {
+            parameters.addValue("limit", limit);
+            limitClause = " LIMIT :limit";
+        }
+        jdbcTemplate.query("SELECT a.name AS app, u.uri AS uri, s.hits FROM (" +
+                        "SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits FROM hits " +
+                        "WHERE created BETWEEN :start AND :end" + uriFilter +
+                        " GROUP BY app_id, uri_id ORDER BY hits DESC" + limitClause + ") s " +
+                        "JOIN apps a ON a.app_id = s.app_id " +
+                        "JOIN uris u ON u.uri_id = s.uri_id " +
+                        "ORDER BY s.hits DESC", parameters, (RowCallbackHandler) rs ->
+                consumer.accept(new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"))));
+    }
+
+    public List<Hit> findAfter(long afterHitId, int size) {
+        return jdbcTemplate.query("SELECT hit_id, app_id, uri_id, host(ip) AS ip, created FROM hits " +
+                        "WHERE hit_id > :afterHitId ORDER BY hit_id LIMIT :size",
+                new MapSqlParameterSource()
+                        .addValue("afterHitId", afterHitId)
+                        .addValue("size", size),
+                (rs, rowNum) -> new Hit(rs.getLong("hit_id"), rs.getInt("app_id"), rs.getInt("uri_id"), null, null,
+                        HitMapper.normalizeIp(rs.getString("ip")), rs.getTimestamp("created").toLocalDateTime()));
+    }
+
+    private static MapSqlParameterSource toParameters(Hit hit) {
+        return new MapSqlParameterSource()
+                .addValue("appId", hit.getAppId())
+                .addValue("uriId", hit.getUriId())
+                .addValue("ip", hit.getIp())
+                .addValue("created", Timestamp.valueOf(hit.getCreated()));
+    }
+}
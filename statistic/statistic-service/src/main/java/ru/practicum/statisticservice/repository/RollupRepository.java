@@ -0,0 +1,97 @@
+package ru.practicum.statisticservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.statisticdto.ViewStats;
+import ru.practicum.statisticservice.model.Hit;
+import ru.practicum.statisticservice.model.RollupGranularity;
+import ru.practicum.statisticservice.model.RollupSegment;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class RollupRepository {
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO hit_rollups (granularity, bucket_start, app_id, uri_id, hits) " +
+            "VALUES (:granularity, :bucketStart, :appId, :uriId, :hits) " +
+            "ON CONFLICT (granularity, bucket_start, app_id, uri_id) DO UPDATE SET hits = hit_rollups.hits + EXCLUDED.hits";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void increment(List<Hit> hits) {
+        Map<String, MapSqlParameterSource> counters = new TreeMap<>();
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Timestamp bucketStart = Timestamp.valueOf(hit.getCreated().truncatedTo(granularity.getUnit()));
+                String key = String.join("\n", granularity.name(), bucketStart.toString(),
+                        hit.getAppId().toString(), hit.getUriId().toString());
+                MapSqlParameterSource counter = counters.computeIfAbsent(key, k -> new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("bucketStart", bucketStart)
+                        .addValue("appId", hit.getAppId())
+                        .addValue("uriId", hit.getUriId())
+                        .addValue("hits", 0L));
+                counter.addValue("hits", (Long) counter.getValue("hits") + 1);
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, counters.values().toArray(new MapSqlParameterSource[0]));
+    }
+
+    public int deleteBefore(LocalDate cutoff) {
+        return jdbcTemplate.update("DELETE FROM hit_rollups WHERE bucket_start < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff.atStartOfDay())));
+    }
+
+    public void findViewStats(List<RollupSegment> segments, List<Integer> uriIds, Integer limit,
+                              Consumer<ViewStats> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String uriFilter = "";
+        if (uriIds != null) {
+            parameters.addValue("uriIds", uriIds);
+            uriFilter = " AND uri_id IN (:uriIds)";
+        }
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            RollupSegment segment = segments.get(i);
+            parameters.addValue("from" + i, Timestamp.valueOf(segment.getFrom()));
+            parameters.addValue("to" + i, Timestamp.valueOf(segment.getTo()));
+            if (segment.isRaw()) {
+                parts.add("SELECT app_id, uri_id, COUNT(*) AS hits FROM hits " +
+                        "WHERE created >= :from" + i + " AND created < :to" + i + uriFilter +
+                        " GROUP BY app_id, uri_id");
+            } else {
+                parameters.addValue("granularity" + i, segment.getGranularity().name());
+                parts.add("SELECT app_id, uri_id, SUM(hits) AS hits FROM hit_rollups " +
+                        "WHERE granularity = :granularity" + i +
+                        " AND bucket_start >= :from" + i + " AND bucket_start < :to" + i + uriFilter +
+                        " GROUP BY app_id, uri_id");
+            }
+        }
+        if (parts.isEmpty()) {
+            return;
+        }
+        String limitClause = "";
+        if (limit != null) {
+            parameters.addValue("limit", limit);
+            limitClause = " LIMIT :limit";
+        }
+        String sql = "SELECT a.name AS app, u.uri AS uri, s.hits FROM (" +
+                "SELECT app_id, uri_id, SUM(hits) AS hits FROM (" + String.join(" UNION ALL ", parts) + ") p " +
+                "GROUP BY app_id, uri_id ORDER BY hits DESC" + limitClause + ") s " +
+                "JOIN apps a ON a.app_id = s.app_id " +
+                "JOIN uris u ON u.uri_id = s.uri_id " +
+                "ORDER BY s.hits DESC";
+        jdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs ->
+                consumer.accept(new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"))));
+    }
+}
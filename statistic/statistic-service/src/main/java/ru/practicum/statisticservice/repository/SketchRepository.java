@@ -0,0 +1,142 @@
+package ru.practicum.statisticservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.statisticdto.ViewStats;
+import ru.practicum.statisticservice.mapper.HitMapper;
+import ru.practicum.statisticservice.model.Hit;
+import ru.practicum.statisticservice.model.RollupGranularity;
+import ru.practicum.statisticservice.model.RollupSegment;
+import ru.practicum.statisticservice.service.HyperLogLog;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class SketchRepository {
+
+    public static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.DAY, RollupGranularity.HOUR);
+
+    private static final String INSERT_EMPTY = "INSERT INTO hit_sketches " +
+            "(granularity, bucket_start, app_id, uri_id, registers) " +
+            "VALUES (:granularity, :bucketStart, :appId, :uriId, ''::bytea) " +
+            "ON CONFLICT (granularity, bucket_start, app_id, uri_id) DO NOTHING";
+    private static final String UPDATE_REGISTERS = "UPDATE hit_sketches SET registers = :registers " +
+            "WHERE granularity = :granularity AND bucket_start = :bucketStart AND app_id = :appId AND uri_id = :uriId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Строки скетчей сначала создаются пустыми, затем блокируются в порядке первичного ключа,
+     * поэтому параллельные пакеты сливают регистры друг за другом, а не перезаписывают их.
+     */
+    @Transactional
+    public void offer(List<Hit> hits) {
+        Map<String, MapSqlParameterSource> buckets = new TreeMap<>();
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        for (Hit hit : hits) {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                Timestamp bucketStart = Timestamp.valueOf(hit.getCreated().truncatedTo(granularity.getUnit()));
+                String key = key(granularity.name(), bucketStart, hit.getAppId(), hit.getUriId());
+                buckets.computeIfAbsent(key, k -> new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("bucketStart", bucketStart)
+                        .addValue("appId", hit.getAppId())
+                        .addValue("uriId", hit.getUriId()));
+                sketches.computeIfAbsent(key, k -> new HyperLogLog()).offer(hit.getIp());
+            }
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] parameters = buckets.values().toArray(new MapSqlParameterSource[0]);
+        jdbcTemplate.batchUpdate(INSERT_EMPTY, parameters);
+        List<Object[]> keys = new ArrayList<>(buckets.size());
+        for (MapSqlParameterSource bucket : parameters) {
+            keys.add(new Object[]{bucket.getValue("granularity"), bucket.getValue("bucketStart"),
+                    bucket.getValue("appId"), bucket.getValue("uriId")});
+        }
+        jdbcTemplate.query("SELECT granularity, bucket_start, app_id, uri_id, registers FROM hit_sketches " +
+                "WHERE (granularity, bucket_start, app_id, uri_id) IN (:keys) " +
+                "ORDER BY granularity, bucket_start, app_id, uri_id FOR UPDATE",
+                new MapSqlParameterSource("keys", keys), (RowCallbackHandler) rs ->
+                        sketches.get(key(rs.getString("granularity"), rs.getTimestamp("bucket_start"),
+                                rs.getInt("app_id"), rs.getInt("uri_id"))).merge(rs.getBytes("registers")));
+        buckets.forEach((key, bucket) -> bucket.addValue("registers", sketches.get(key).toBytes()));
+        jdbcTemplate.batchUpdate(UPDATE_REGISTERS, parameters);
+    }
+
+    public List<ViewStats> findApproximateViewStats(List<RollupSegment> segments, List<Integer> uriIds,
+                                                    Integer limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String uriFilter = "";
+        if (uriIds != null) {
+            parameters.addValue("uriIds", uriIds);
+            uriFilter = " AND uri_id IN (:uriIds)";
+        }
+        List<String> sketchRanges = new ArrayList<>();
+        List<String> rawRanges = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            RollupSegment segment = segments.get(i);
+            parameters.addValue("from" + i, Timestamp.valueOf(segment.getFrom()));
+            parameters.addValue("to" + i, Timestamp.valueOf(segment.getTo()));
+            if (segment.isRaw()) {
+                rawRanges.add("(created >= :from" + i + " AND created < :to" + i + ")");
+            } else {
+                parameters.addValue("granularity" + i, segment.getGranularity().name());
+                sketchRanges.add("(granularity = :granularity" + i +
+                        " AND bucket_start >= :from" + i + " AND bucket_start < :to" + i + ")");
+            }
+        }
+        Map<List<String>, HyperLogLog> sketches = new HashMap<>();
+        if (!sketchRanges.isEmpty()) {
+            jdbcTemplate.query("SELECT a.name AS app, u.uri AS uri, r.registers FROM (" +
+                    "SELECT app_id, uri_id, registers FROM hit_sketches " +
+                    "WHERE (" + String.join(" OR ", sketchRanges) + ")" + uriFilter + ") r " +
+                    "JOIN apps a ON a.app_id = r.app_id " +
+                    "JOIN uris u ON u.uri_id = r.uri_id", parameters, (RowCallbackHandler) rs ->
+                    sketches.computeIfAbsent(List.of(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                            .merge(rs.getBytes("registers")));
+        }
+        if (!rawRanges.isEmpty()) {
+            jdbcTemplate.query("SELECT a.name AS app, u.uri AS uri, host(r.ip) AS ip FROM (" +
+                    "SELECT DISTINCT app_id, uri_id, ip FROM hits " +
+                    "WHERE (" + String.join(" OR ", rawRanges) + ")" + uriFilter + ") r " +
+                    "JOIN apps a ON a.app_id = r.app_id " +
+                    "JOIN uris u ON u.uri_id = r.uri_id", parameters, (RowCallbackHandler) rs ->
+                    sketches.computeIfAbsent(List.of(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                            .offer(HitMapper.normalizeIp(rs.getString("ip"))));
+        }
+        return sketches.entrySet().stream()
+                .map(entry -> new ViewStats(entry.getKey().get(0), entry.getKey().get(1), entry.getValue().estimate()))
+                .sorted(Comparator.comparing(ViewStats::getHits).reversed())
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+
+    private static String key(String granularity, Timestamp bucketStart, Integer appId, Integer uriId) {
+        return String.join("\n", granularity, bucketStart.toString(), appId.toString(), uriId.toString());
+    }
+
+    public int deleteBefore(LocalDate cutoff) {
+        return jdbcTemplate.update("DELETE FROM hit_sketches WHERE bucket_start < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff.atStartOfDay())));
+    }
+
+    public boolean isEmpty() {
+        return Boolean.FALSE.equals(jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM hit_sketches)", Boolean.class));
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.statisticservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.statisticservice.model.PartitionRetentionMode;
+import ru.practicum.statisticservice.repository.HitPartitionRepository;
+import ru.practicum.statisticservice.repository.RollupRepository;
+import ru.practicum.statisticservice.repository.SketchRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HitPartitionManager implements InitializingBean {
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'hits_y'yyyy'm'MM");
+
+    private final HitPartitionRepository hitPartitionRepository;
+    private final RollupRepository rollupRepository;
+    private final SketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${statistic.partitions.months-ahead:3}")
+    private int monthsAhead;
+    @Value("${statistic.partitions.retention-months:0}")
+    private int retentionMonths;
+    @Value("${statistic.partitions.retention-mode:DETACH}")
+    private PartitionRetentionMode retentionMode;
+
+    @Override
+    public void afterPropertiesSet() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${statistic.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!hitPartitionRepository.isPartitioned()) {
+            log.warn("Таблица hits не секционирована, обслуживание секций пропущено");
+            return;
+        }
+        hitPartitionRepository.createDefaultPartition();
+        Set<YearMonth> existing = new HashSet<>();
+        for (String name : hitPartitionRepository.findPartitionNames()) {
+            YearMonth month = parseMonth(name);
+            if (month != null) {
+                existing.add(month);
+            }
+        }
+        YearMonth current = YearMonth.now();
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                createPartition(month);
+            }
+        }
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            existing.stream()
+                    .filter(month -> month.isBefore(oldestKept))
+                    .forEach(this::removePartition);
+            pruneBefore(oldestKept.atDay(1));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = month.format(PARTITION_NAME_FORMAT);
+        LocalDate from = month.atDay(1);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    hitPartitionRepository.createPartition(name, from, from.plusMonths(1)));
+            log.info("Создана секция {} для хитов с {} по {}", name, from, from.plusMonths(1));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось создать секцию {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void removePartition(YearMonth month) {
+        String name = month.format(PARTITION_NAME_FORMAT);
+        try {
+            hitPartitionRepository.detachPartition(name);
+            if (retentionMode == PartitionRetentionMode.DROP) {
+                hitPartitionRepository.dropTable(name);
+            }
+            log.info("Секция {} отключена ({})", name, retentionMode);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось отключить секцию {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Агрегаты и скетчи обрезаются по той же границе, что и секции, иначе запросы
+     * с unique=false и unique=true расходились бы на удалённых периодах.
+     */
+    private void pruneBefore(LocalDate cutoff) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int hits = hitPartitionRepository.deleteFromDefaultBefore(cutoff);
+                int rollups = rollupRepository.deleteBefore(cutoff);
+                int sketches = sketchRepository.deleteBefore(cutoff);
+                log.info("Удалены данные статистики до {}: хитов {}, агрегатов {}, скетчей {}",
+                        cutoff, hits, rollups, sketches);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Не удалось удалить данные статистики до {}: {}", cutoff, e.getMessage());
+        }
+    }
+
+    private YearMonth parseMonth(String partitionName) {
+        try {
+            return YearMonth.parse(partitionName, PARTITION_NAME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
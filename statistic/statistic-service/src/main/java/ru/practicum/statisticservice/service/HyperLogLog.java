@@ -0,0 +1,113 @@
+package ru.practicum.statisticservice.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog с 2^12 регистрами. Стандартная ошибка оценки 1.04 / sqrt(4096) ≈ 1.6%,
+ * то есть примерно в 95% случаев оценка отличается от точного значения не более чем на 3.3%.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public static int register(long hash) {
+        return (int) (hash >>> (Long.SIZE - PRECISION));
+    }
+
+    public static int rank(long hash) {
+        return Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+    }
+
+    public void offer(String value) {
+        long hash = hash(value);
+        merge(register(hash), rank(hash));
+    }
+
+    public void merge(int register, int rank) {
+        if (registers[register] < rank) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    /**
+     * Сливает сериализованный скетч: либо плотный массив всех регистров, либо тройки
+     * (номер регистра в двух байтах, ранг) только для ненулевых регистров.
+     */
+    public void merge(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return;
+        }
+        if (bytes[0] == DENSE) {
+            for (int register = 0; register < REGISTERS; register++) {
+                merge(register, bytes[register + 1]);
+            }
+            return;
+        }
+        for (int i = 1; i + 2 < bytes.length; i += 3) {
+            merge(((bytes[i] & 0xff) << 8) | (bytes[i + 1] & 0xff), bytes[i + 2]);
+        }
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte rank : registers) {
+            if (rank != 0) {
+                used++;
+            }
+        }
+        if (used * 3 >= REGISTERS) {
+            byte[] dense = new byte[REGISTERS + 1];
+            dense[0] = DENSE;
+            System.arraycopy(registers, 0, dense, 1, REGISTERS);
+            return dense;
+        }
+        byte[] sparse = new byte[1 + used * 3];
+        sparse[0] = SPARSE;
+        int position = 1;
+        for (int register = 0; register < REGISTERS; register++) {
+            if (registers[register] != 0) {
+                sparse[position++] = (byte) (register >>> 8);
+                sparse[position++] = (byte) register;
+                sparse[position++] = registers[register];
+            }
+        }
+        return sparse;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
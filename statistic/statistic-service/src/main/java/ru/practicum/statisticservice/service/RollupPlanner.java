@@ -0,0 +1,46 @@
+package ru.practicum.statisticservice.service;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.statisticservice.model.RollupGranularity;
+import ru.practicum.statisticservice.model.RollupSegment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RollupPlanner {
+
+    public static List<RollupSegment> plan(LocalDateTime from, LocalDateTime to, List<RollupGranularity> levels) {
+        List<RollupSegment> segments = new ArrayList<>();
+        cover(from, to, levels, 0, segments);
+        return segments;
+    }
+
+    private static void cover(LocalDateTime from, LocalDateTime to, List<RollupGranularity> levels, int level,
+                              List<RollupSegment> segments) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level == levels.size()) {
+            segments.add(new RollupSegment(null, from, to));
+            return;
+        }
+        RollupGranularity granularity = levels.get(level);
+        LocalDateTime bucketsFrom = ceil(from, granularity);
+        LocalDateTime bucketsTo = to.truncatedTo(granularity.getUnit());
+        if (!bucketsFrom.isBefore(bucketsTo)) {
+            cover(from, to, levels, level + 1, segments);
+            return;
+        }
+        segments.add(new RollupSegment(granularity, bucketsFrom, bucketsTo));
+        cover(from, bucketsFrom, levels, level + 1, segments);
+        cover(bucketsTo, to, levels, level + 1, segments);
+    }
+
+    private static LocalDateTime ceil(LocalDateTime time, RollupGranularity granularity) {
+        LocalDateTime truncated = time.truncatedTo(granularity.getUnit());
+        return truncated.equals(time) ? time : truncated.plus(1, granularity.getUnit());
+    }
+}
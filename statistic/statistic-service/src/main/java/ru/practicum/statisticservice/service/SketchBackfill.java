@@ -0,0 +1,37 @@
+package ru.practicum.statisticservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.statisticservice.model.Hit;
+import ru.practicum.statisticservice.repository.HitRepository;
+import ru.practicum.statisticservice.repository.SketchRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SketchBackfill {
+
+    private final HitRepository hitRepository;
+    private final SketchRepository sketchRepository;
+    @Value("${statistic.sketches.backfill-batch-size:5000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!sketchRepository.isEmpty()) {
+            return;
+        }
+        log.info("Заполнение HyperLogLog-скетчей по сохранённым хитам");
+        List<Hit> hits = hitRepository.findAfter(0, batchSize);
+        while (!hits.isEmpty()) {
+            sketchRepository.offer(hits);
+            hits = hitRepository.findAfter(hits.get(hits.size() - 1).getId(), batchSize);
+        }
+    }
+}
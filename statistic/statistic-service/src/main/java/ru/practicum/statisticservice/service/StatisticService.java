@@ -2,13 +2,20 @@ package ru.practicum.statisticservice.service;
 
 import ru.practicum.statisticdto.HitDto;
 import ru.practicum.statisticdto.ViewStats;
+import ru.practicum.statisticservice.model.UniqueMode;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatisticService {
 
     HitDto createHit(HitDto hitDto);
 
-    List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, Boolean unique, String[] uris);
-}
\ No newline at end of file
+    void createHits(List<HitDto> hitDtos);
+
+    List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, UniqueMode unique, String[] uris);
+
+    void streamStatistic(LocalDateTime start, LocalDateTime end, UniqueMode unique, String[] uris,
+                         Consumer<ViewStats> consumer);
+}
@@ -1,44 +1,105 @@
 package ru.practicum.statisticservice.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.statisticdto.HitDto;
 import ru.practicum.statisticdto.ViewStats;
 import ru.practicum.statisticservice.exception.ObjectValidationException;
 import ru.practicum.statisticservice.mapper.HitMapper;
-import ru.practicum.statisticservice.repository.StatisticRepository;
+import ru.practicum.statisticservice.model.Hit;
+import ru.practicum.statisticservice.model.RollupGranularity;
+import ru.practicum.statisticservice.model.UniqueMode;
+import ru.practicum.statisticservice.repository.DictionaryRepository;
+import ru.practicum.statisticservice.repository.HitRepository;
+import ru.practicum.statisticservice.repository.RollupRepository;
+import ru.practicum.statisticservice.repository.SketchRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class StatisticServiceImpl implements StatisticService {
 
-    private final StatisticRepository statisticRepository;
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final HitRepository hitRepository;
+    private final DictionaryRepository dictionaryRepository;
+    private final RollupRepository rollupRepository;
+    private final SketchRepository sketchRepository;
 
     @Override
     public HitDto createHit(HitDto hitDto) {
-        return HitMapper.hitToDto(statisticRepository.save(HitMapper.hitFromDto(hitDto)));
+        Hit hit = hitRepository.save(intern(List.of(HitMapper.hitFromDto(hitDto))).get(0));
+        rollupRepository.increment(List.of(hit));
+        sketchRepository.offer(List.of(hit));
+        return HitMapper.hitToDto(hit);
+    }
+
+    @Override
+    public void createHits(List<HitDto> hitDtos) {
+        List<Hit> hits = intern(hitDtos.stream()
+                .map(HitMapper::hitFromDto)
+                .collect(Collectors.toList()));
+        hitRepository.saveAll(hits);
+        rollupRepository.increment(hits);
+        sketchRepository.offer(hits);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, UniqueMode unique, String[] uris) {
+        List<ViewStats> viewStats = new ArrayList<>();
+        streamStatistic(start, end, unique, uris, viewStats::add);
+        return viewStats;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, Boolean unique, String[] uris) {
+    public void streamStatistic(LocalDateTime start, LocalDateTime end, UniqueMode unique, String[] uris,
+                                Consumer<ViewStats> consumer) {
         if (start.isAfter(end)) {
             throw new ObjectValidationException("Начало не может быть позже конца");
         }
-        if (uris == null || uris.length == 0) {
-            return unique ?
-                    statisticRepository.findViewStatisticsWithoutUrisAndIsIpUnique(start, end, PageRequest.of(0, 10)) :
-                    statisticRepository.findViewStatisticsWithoutUris(start, end, PageRequest.of(0, 10));
-        } else {
-            return unique ?
-                    statisticRepository.findViewStatisticsWithUrisAndIpIsUnique(start, end, uris) :
-                    statisticRepository.findViewStatisticsWithUris(start, end, uris);
+        boolean withoutUris = uris == null || uris.length == 0;
+        Integer limit = withoutUris ? DEFAULT_LIMIT : null;
+        List<Integer> uriIds = withoutUris ? null : dictionaryRepository.findUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime endExclusive = end.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        switch (unique) {
+            case APPROX:
+                sketchRepository.findApproximateViewStats(
+                        RollupPlanner.plan(start, endExclusive, SketchRepository.GRANULARITIES), uriIds, limit)
+                        .forEach(consumer);
+                break;
+            case EXACT:
+                hitRepository.findUniqueViewStats(start, end, uriIds, limit, consumer);
+                break;
+            default:
+                rollupRepository.findViewStats(
+                        RollupPlanner.plan(start, endExclusive, List.of(RollupGranularity.values())), uriIds, limit,
+                        consumer);
+        }
+    }
+
+    private List<Hit> intern(List<Hit> hits) {
+        Map<String, Integer> appIds = dictionaryRepository.getAppIds(
+                hits.stream().map(Hit::getApp).collect(Collectors.toSet()));
+        Map<String, Integer> uriIds = dictionaryRepository.getUriIds(
+                hits.stream().map(Hit::getUri).collect(Collectors.toSet()));
+        for (Hit hit : hits) {
+            hit.setAppId(appIds.get(hit.getApp()));
+            hit.setUriId(uriIds.get(hit.getUri()));
         }
+        return hits;
     }
-}
\ No newline at end of file
+}
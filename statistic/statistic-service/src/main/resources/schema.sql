@@ -1,8 +1,120 @@
+CREATE TABLE IF NOT EXISTS apps
+(
+    app_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name   VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS uris
+(
+    uri_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    uri    VARCHAR(2048) NOT NULL UNIQUE
+);
+
+CREATE OR REPLACE FUNCTION pg_temp.try_inet(value TEXT) RETURNS INET AS '
+BEGIN
+    RETURN value::INET;
+EXCEPTION
+    WHEN invalid_text_representation THEN
+        RETURN NULL;
+END' LANGUAGE plpgsql IMMUTABLE;
+
+DO 'BEGIN
+    IF EXISTS(SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = ''hits'' AND column_name = ''app'') THEN
+        CREATE TABLE IF NOT EXISTS hits_invalid_ip AS SELECT * FROM hits WITH NO DATA;
+        INSERT INTO hits_invalid_ip SELECT * FROM hits WHERE pg_temp.try_inet(ip) IS NULL;
+        DELETE FROM hits WHERE pg_temp.try_inet(ip) IS NULL;
+        INSERT INTO apps (name) SELECT DISTINCT app FROM hits ORDER BY 1 ON CONFLICT (name) DO NOTHING;
+        INSERT INTO uris (uri) SELECT DISTINCT uri FROM hits ORDER BY 1 ON CONFLICT (uri) DO NOTHING;
+        ALTER TABLE hits ADD COLUMN app_id INTEGER, ADD COLUMN uri_id INTEGER;
+        UPDATE hits h SET app_id = a.app_id, uri_id = u.uri_id
+        FROM apps a, uris u
+        WHERE a.name = h.app AND u.uri = h.uri;
+        DROP INDEX IF EXISTS hits_uri_created_idx;
+        ALTER TABLE hits
+            ALTER COLUMN app_id SET NOT NULL,
+            ALTER COLUMN uri_id SET NOT NULL,
+            ALTER COLUMN ip TYPE INET USING ip::INET,
+            DROP COLUMN app,
+            DROP COLUMN uri;
+        DROP TABLE IF EXISTS hit_rollups;
+    END IF;
+END';
+
+DO 'BEGIN
+    IF EXISTS(SELECT 1 FROM pg_class WHERE oid = to_regclass(''hits'') AND relkind = ''r'') THEN
+        CREATE TABLE IF NOT EXISTS hits_invalid_created AS SELECT * FROM hits WITH NO DATA;
+        INSERT INTO hits_invalid_created SELECT * FROM hits WHERE created IS NULL;
+        DELETE FROM hits WHERE created IS NULL;
+        ALTER TABLE hits ALTER COLUMN hit_id DROP IDENTITY IF EXISTS;
+        CREATE SEQUENCE IF NOT EXISTS hits_hit_id_seq;
+        PERFORM setval(''hits_hit_id_seq'', COALESCE((SELECT MAX(hit_id) FROM hits), 0) + 1, false);
+        ALTER TABLE hits RENAME TO hits_default;
+        ALTER INDEX IF EXISTS hits_pkey RENAME TO hits_default_hit_id_key;
+        ALTER INDEX IF EXISTS hits_created_idx RENAME TO hits_default_created_idx;
+        ALTER INDEX IF EXISTS hits_uri_created_idx RENAME TO hits_default_uri_created_idx;
+        ALTER TABLE hits_default ALTER COLUMN created SET NOT NULL;
+        CREATE TABLE hits
+        (
+            hit_id  BIGINT    NOT NULL DEFAULT nextval(''hits_hit_id_seq''),
+            app_id  INTEGER   NOT NULL,
+            uri_id  INTEGER   NOT NULL,
+            ip      INET      NOT NULL,
+            created TIMESTAMP NOT NULL,
+            PRIMARY KEY (hit_id, created)
+        ) PARTITION BY RANGE (created);
+        ALTER SEQUENCE hits_hit_id_seq OWNED BY hits.hit_id;
+        ALTER TABLE hits ATTACH PARTITION hits_default DEFAULT;
+    END IF;
+END';
+
 CREATE TABLE IF NOT EXISTS hits
 (
-    hit_id  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    app     VARCHAR(255)  NOT NULL,
-    uri     VARCHAR(2048) NOT NULL,
-    ip      VARCHAR(15)   NOT NULL,
-    created timestamp
-);
\ No newline at end of file
+    hit_id  BIGSERIAL,
+    app_id  INTEGER   NOT NULL,
+    uri_id  INTEGER   NOT NULL,
+    ip      INET      NOT NULL,
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (hit_id, created)
+) PARTITION BY RANGE (created);
+
+CREATE INDEX IF NOT EXISTS hits_created_idx ON hits (created);
+CREATE INDEX IF NOT EXISTS hits_uri_created_idx ON hits (uri_id, created);
+
+CREATE TABLE IF NOT EXISTS hit_rollups
+(
+    granularity  VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP  NOT NULL,
+    app_id       INTEGER    NOT NULL,
+    uri_id       INTEGER    NOT NULL,
+    hits         BIGINT     NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, app_id, uri_id)
+);
+
+CREATE INDEX IF NOT EXISTS hit_rollups_uri_idx ON hit_rollups (granularity, uri_id, bucket_start);
+
+INSERT INTO hit_rollups (granularity, bucket_start, app_id, uri_id, hits)
+SELECT g.granularity, date_trunc(g.unit, h.created), h.app_id, h.uri_id, COUNT(*)
+FROM hits h
+         CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+WHERE NOT EXISTS(SELECT 1 FROM hit_rollups)
+GROUP BY g.granularity, date_trunc(g.unit, h.created), h.app_id, h.uri_id;
+
+DO 'BEGIN
+    IF EXISTS(SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = ''hit_sketches'' AND column_name = ''register'') THEN
+        DROP TABLE hit_sketches;
+    END IF;
+END';
+
+CREATE TABLE IF NOT EXISTS hit_sketches
+(
+    granularity  VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP  NOT NULL,
+    app_id       INTEGER    NOT NULL,
+    uri_id       INTEGER    NOT NULL,
+    registers    BYTEA      NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, app_id, uri_id)
+);
+
+CREATE INDEX IF NOT EXISTS hit_sketches_uri_idx ON hit_sketches (granularity, uri_id, bucket_start);